@@ -1,20 +1,28 @@
 package org.simplejavamail.outlookmessageparser;
 
-import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
-import org.apache.poi.poifs.filesystem.DirectoryEntry;
-import org.apache.poi.poifs.filesystem.DocumentEntry;
-import org.apache.poi.poifs.filesystem.DocumentInputStream;
-import org.apache.poi.poifs.filesystem.Entry;
-import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+import org.apache.commons.io.IOUtils;
 import org.bbottema.rtftohtml.OutlookRtfToHtmlConverter;
 import org.bbottema.rtftohtml.RtfToHtmlConverter;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.simplejavamail.outlookmessageparser.container.CompoundFile;
+import org.simplejavamail.outlookmessageparser.container.MsgContainer;
+import org.simplejavamail.outlookmessageparser.container.MsgContainerBackend;
+import org.simplejavamail.outlookmessageparser.container.MsgDirectory;
+import org.simplejavamail.outlookmessageparser.container.MsgDocument;
+import org.simplejavamail.outlookmessageparser.container.MsgEntry;
+import org.simplejavamail.outlookmessageparser.container.StandardMsgContainerBackend;
+import org.simplejavamail.outlookmessageparser.ParseOptions.Part;
 import org.simplejavamail.outlookmessageparser.model.OutlookAttachment;
 import org.simplejavamail.outlookmessageparser.model.OutlookFieldInformation;
 import org.simplejavamail.outlookmessageparser.model.OutlookFileAttachment;
 import org.simplejavamail.outlookmessageparser.model.OutlookMessage;
+import org.simplejavamail.outlookmessageparser.model.OutlookMessageEnvelope;
+import org.simplejavamail.outlookmessageparser.model.OutlookMessageProbe;
+import org.simplejavamail.outlookmessageparser.model.OutlookMessageProbe.Verdict;
 import org.simplejavamail.outlookmessageparser.model.OutlookMessageProperty;
 import org.simplejavamail.outlookmessageparser.model.OutlookMsgAttachment;
+import org.simplejavamail.outlookmessageparser.model.OutlookNamedProperty;
 import org.simplejavamail.outlookmessageparser.model.OutlookRecipient;
 import org.simplejavamail.jakarta.mail.MessagingException;
 import org.simplejavamail.jakarta.mail.internet.InternetHeaders;
@@ -27,31 +35,70 @@ import org.slf4j.LoggerFactory;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.Buffer;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
 import static java.lang.String.format;
+import static java.util.Arrays.copyOfRange;
 import static java.util.regex.Pattern.CASE_INSENSITIVE;
 import static java.util.regex.Pattern.compile;
 
 /**
- * Main parser class that does the actual parsing of the Outlook .msg file. It uses the <a href="http://poi.apache.org/poifs/">POI</a> library for parsing the
- * .msg container file and is based on a description posted by Peter Fiskerstrand at <a href="http://www.fileformat.info/format/outlookmsg/">fileformat.info</a>.
+ * Main parser class that does the actual parsing of the Outlook .msg file. The .msg container file is opened by a {@link MsgContainerBackend}: a built-in
+ * compound file reader by default, or the <a href="http://poi.apache.org/poifs/">POI</a> library. Parsing is based on a description posted by Peter
+ * Fiskerstrand at <a href="http://www.fileformat.info/format/outlookmsg/">fileformat.info</a>.
  * <p>
  * It parses the .msg file and stores the information in a {@link OutlookMessage} object. Attachments are put into an {@link OutlookFileAttachment} object.
  * Hence, please keep in mind that the complete mail is held in the memory! If an attachment is another .msg file, this attachment is not processed as a normal
@@ -76,9 +123,73 @@ public class OutlookMessageParser {
 	private static final Logger LOGGER = LoggerFactory.getLogger(OutlookMessageParser.class);
 
 	private static final String PROPS_KEY = "__properties_version1.0";
+	private static final String NAMEID_KEY = "__nameid_version1.0";
+	private static final String NAMEID_GUID_STREAM_KEY = "__substg1.0_00020102";
+	private static final String NAMEID_ENTRY_STREAM_KEY = "__substg1.0_00030102";
+	private static final String NAMEID_STRING_STREAM_KEY = "__substg1.0_00040102";
+	private static final int NAMEID_ENTRY_SIZE = 8;
+	private static final int NAMEID_GUID_SIZE = 16;
+	/**
+	 * Index of the first GUID in the GUID stream of the named property mapping, lower indexes refer to predefined property sets.
+	 */
+	private static final int NAMEID_FIRST_STREAM_GUID_INDEX = 3;
 
 	private static final String PROPERTY_STREAM_PREFIX = "__substg1.0_";
 
+	private static final OutlookFieldInformation UNKNOWN_FIELD_INFORMATION = new OutlookFieldInformation();
+
+	/**
+	 * Decoded field information by entry name, shared by all parser instances. The same few hundred names recur in every message, so once
+	 * warmed up, entries are analyzed without any string work beyond a hash lookup.
+	 */
+	private static final Map<String, OutlookFieldInformation> FIELD_INFORMATION_BY_ENTRY_NAME = new ConcurrentHashMap<>();
+	private static final int FIELD_INFORMATION_CACHE_LIMIT = 4096;
+
+	/**
+	 * Per thread buffer for reading fixed-width property documents, see {@link #readLittleEndianLong(MsgDocument)}.
+	 */
+	private static final ThreadLocal<ByteBuffer> FIXED_WIDTH_SCRATCH = ThreadLocal.withInitial(
+			() -> ByteBuffer.allocate(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN));
+
+	/**
+	 * Per thread decoder for Unicode strings, see {@link #decodeUnicodeString(byte[])}. It reports malformed data instead of replacing it, so
+	 * that data can be decoded code unit by code unit instead.
+	 */
+	private static final ThreadLocal<CharsetDecoder> UTF_16LE_DECODER = ThreadLocal.withInitial(
+			() -> StandardCharsets.UTF_16LE.newDecoder().onMalformedInput(CodingErrorAction.REPORT).onUnmappableCharacter(CodingErrorAction.REPORT));
+
+	/**
+	 * The charsets of the codepages seen so far, see {@link #charsetForCodepage(int)}. Empty for codepages Java does not support.
+	 */
+	private static final Map<Integer, Optional<Charset>> CHARSET_BY_CODEPAGE = new ConcurrentHashMap<>();
+	private static final int CHARSET_CACHE_LIMIT = 256;
+	/**
+	 * Number of bytes of an 8-bit string of a message without codepage that are searched for an XML charset declaration.
+	 */
+	private static final int STRING8_CHARSET_SNIFF_BYTE_LIMIT = 4096;
+
+	private static final String ATTACHMENT_DATA_KEY = PROPERTY_STREAM_PREFIX + "37010102";
+
+	/**
+	 * Sizes of the header preceding the fixed-length property entries in the properties stream of a top-level message, an attached message and
+	 * a recipient or attachment ([MS-OXMSG] 2.4.1).
+	 */
+	private static final int TOP_LEVEL_PROPERTIES_HEADER_SIZE = 32;
+	private static final int EMBEDDED_MESSAGE_PROPERTIES_HEADER_SIZE = 24;
+	private static final int RECIPIENT_PROPERTIES_HEADER_SIZE = 8;
+	private static final int PROPERTY_ENTRY_SIZE = 16;
+	/**
+	 * Set in the MAPI property type of multi-valued properties, e.g. {@code 0x101F} for multiple Unicode strings.
+	 */
+	private static final int MULTI_VALUED_FLAG = 0x1000;
+	private static final int MULTI_VALUED_GUID_SIZE = 16;
+
+	/**
+	 * Upper bound for the message class probed by {@link #probe(Path)}, well above any class Outlook writes, so that probing never reads more
+	 * than a few sectors.
+	 */
+	private static final int PROBE_MESSAGE_CLASS_BYTE_LIMIT = 1024;
+
 	private static final String CONTENT_TYPE = "Content-Type";
 	private static final String CONTENT_DISPOSITION = "Content-Disposition";
 	private static final String SMIME_APPLICATION_PKCS7_MIME = "application/pkcs7-mime";
@@ -91,12 +202,36 @@ public class OutlookMessageParser {
 	private static final int MIME_HEADER_SCAN_BYTE_LIMIT = 16384;
 	private static final Pattern SMIME_OCTET_STREAM_FILENAME_PATTERN = compile(".*\\.(?:p7m|p7s|p7c|p7z)$", CASE_INSENSITIVE);
 	
+	/**
+	 * The properties of which a nested message needs at least one to not be purged, see {@link #messageIsEmpty(OutlookMessage)}: message id,
+	 * subject, normalized subject, body, RTF compressed and HTML.
+	 */
+	private static final int[] EMPTY_MESSAGE_PROPERTY_IDS = { 0x1035, 0x37, 0xe1d, 0x1000, 0x1009, 0x1013 };
+
 	private static final Pattern XML_CHARSET_PATTERN = compile("charset=(\"|)(?<charset>[\\w\\-]+)\\1", CASE_INSENSITIVE);
 	
 	private RtfToHtmlConverter rtf2htmlConverter = OutlookRtfToHtmlConverter.INSTANCE;
 
+	private MsgContainerBackend containerBackend = StandardMsgContainerBackend.COMPOUND_FILE_MAPPED;
+
+	/**
+	 * Size in bytes above which {@link #parseMsg(InputStream)} spools the stream to a temporary file instead of holding the complete container in
+	 * memory. Negative (the default) to always parse in memory.
+	 */
+	private long tempFileThreshold = -1;
+
+	/**
+	 * The parts of a .msg file that are materialized, see {@link #setParseOptions(ParseOptions)}.
+	 */
+	private ParseOptions parseOptions = ParseOptions.all();
+
+	/**
+	 * Which variant of a string property held both as PT_STRING8 and as PT_UNICODE is decoded, see {@link #setPreferUnicodeStrings(boolean)}.
+	 */
+	private boolean preferUnicodeStrings = true;
+
 	/**
-	 * Parses a .msg file provided in the specified file.
+	 * Parses a .msg file provided in the specified file. Delegates to {@link #parseMsg(Path)}.
 	 *
 	 * @param msgFile The .msg file.
 	 * @return A {@link OutlookMessage} object representing the .msg file.
@@ -104,13 +239,11 @@ public class OutlookMessageParser {
 	 */
 	public OutlookMessage parseMsg(@NotNull final File msgFile)
 			throws IOException {
-		try (FileInputStream msgFileInputStream = new FileInputStream(msgFile)) {
-			return parseMsg(msgFileInputStream);
-		}
+		return parseMsg(msgFile.toPath());
 	}
 
 	/**
-	 * Parses a .msg file provided in the specified file.
+	 * Parses a .msg file provided in the specified file. Delegates to {@link #parseMsg(Path)}.
 	 *
 	 * @param msgFile The .msg file as a String path.
 	 * @return A {@link OutlookMessage} object representing the .msg file.
@@ -118,9 +251,233 @@ public class OutlookMessageParser {
 	 */
 	public OutlookMessage parseMsg(@NotNull final String msgFile)
 			throws IOException {
-		try (FileInputStream msgFileInputStream = new FileInputStream(msgFile)) {
-			return parseMsg(msgFileInputStream);
+		return parseMsg(Paths.get(msgFile));
+	}
+
+	/**
+	 * Parses a .msg file provided in the specified path. With the default {@link StandardMsgContainerBackend#COMPOUND_FILE_MAPPED} backend the
+	 * file is memory-mapped read-only, so sectors are read in place rather than copying the whole file onto the heap first (as
+	 * {@link #parseMsg(InputStream)} has to do). The mapping is released again before this method returns.
+	 *
+	 * @param msgFile The path to the .msg file.
+	 * @return A {@link OutlookMessage} object representing the .msg file.
+	 * @throws IOException Thrown if the file could not be loaded or parsed.
+	 */
+	public OutlookMessage parseMsg(@NotNull final Path msgFile)
+			throws IOException {
+		try (MsgContainer container = containerBackend.open(msgFile)) {
+			return parseMsg(container);
+		}
+	}
+
+	/**
+	 * Parses a .msg file provided by a channel. Sectors are read by absolute position as the parser visits them, so only the parts of the file
+	 * that are actually decoded are read, and the file is never buffered as a whole.
+	 * <p>
+	 * Like the {@link InputStream} variant, the channel is closed once parsing completes.
+	 *
+	 * @param msgFileChannel The .msg file as a channel, positioned anywhere (reads are done by absolute position where possible).
+	 * @return A {@link OutlookMessage} object representing the .msg file.
+	 * @throws IOException Thrown if the channel could not be read or parsed.
+	 */
+	public OutlookMessage parseMsg(@NotNull final SeekableByteChannel msgFileChannel)
+			throws IOException {
+		try (MsgContainer container = containerBackend.open(msgFileChannel)) {
+			return parseMsg(container);
+		}
+	}
+
+	/**
+	 * Parses a .msg file held in a (heap or direct) buffer. Sectors are read from the buffer's remaining bytes in place, without copying the
+	 * buffer. Its position and limit are left untouched.
+	 *
+	 * @param msgFileBuffer The .msg file as a buffer, from its position up to its limit.
+	 * @return A {@link OutlookMessage} object representing the .msg file.
+	 * @throws IOException Thrown if the buffer could not be parsed.
+	 */
+	public OutlookMessage parseMsg(@NotNull final ByteBuffer msgFileBuffer)
+			throws IOException {
+		try (MsgContainer container = containerBackend.open(msgFileBuffer)) {
+			return parseMsg(container);
+		}
+	}
+
+	/**
+	 * Checks whether a file is an Outlook .msg file, without parsing it. Only the compound file signature, the header, the root entry, the
+	 * directory entries on the way to the message class and the message class itself are read, so probing costs a few sector reads regardless
+	 * of the size of the file.
+	 *
+	 * @param msgFile The file to probe.
+	 * @return The verdict, with the message class if the file is a .msg file. Files that start with the compound file signature but turn out
+	 * to be truncated or corrupt get {@link Verdict#CORRUPT}.
+	 * @throws IOException Thrown if the file could not be opened or its signature could not be read.
+	 */
+	public OutlookMessageProbe probe(@NotNull final Path msgFile)
+			throws IOException {
+		try (FileChannel channel = FileChannel.open(msgFile, StandardOpenOption.READ)) {
+			final ByteBuffer signature = ByteBuffer.allocate(Long.BYTES);
+			while (signature.hasRemaining() && channel.read(signature, signature.position()) >= 0) {
+				// keep reading until the signature is complete or the file is exhausted
+			}
+			((Buffer) signature).flip();
+			if (!CompoundFile.hasSignature(signature)) {
+				return new OutlookMessageProbe(Verdict.NOT_COMPOUND_FILE, null);
+			}
+			// the container closes the channel as well, which is harmless
+			try (MsgContainer container = CompoundFile.open(channel)) {
+				return probe(container);
+			} catch (IOException e) {
+				return probeCorrupt(msgFile, e);
+			}
+		}
+	}
+
+	/**
+	 * Checks whether a buffer holds an Outlook .msg file, without parsing it, see {@link #probe(Path)}. The buffer's position and limit are
+	 * left untouched.
+	 *
+	 * @param msgFileBuffer The bytes to probe, from the buffer's position up to its limit.
+	 * @return The verdict, with the message class if the buffer holds a .msg file, or {@link Verdict#CORRUPT} if it holds a truncated or
+	 * corrupt compound file.
+	 */
+	public OutlookMessageProbe probe(@NotNull final ByteBuffer msgFileBuffer) {
+		if (!CompoundFile.hasSignature(msgFileBuffer)) {
+			return new OutlookMessageProbe(Verdict.NOT_COMPOUND_FILE, null);
+		}
+		try (MsgContainer container = CompoundFile.open(msgFileBuffer)) {
+			return probe(container);
+		} catch (IOException e) {
+			return probeCorrupt("buffer", e);
+		}
+	}
+
+	private static OutlookMessageProbe probeCorrupt(@NotNull final Object input, @NotNull final IOException e) {
+		LOGGER.debug("Probed compound file {} has a corrupt structure", input, e);
+		return new OutlookMessageProbe(Verdict.CORRUPT, null);
+	}
+
+	private static OutlookMessageProbe probe(@NotNull final MsgContainer container)
+			throws IOException {
+		final MsgDirectory root = container.getRoot();
+		MsgEntry messageClass = root.getEntry(PROPERTY_STREAM_PREFIX + "001A001F");
+		Charset charset = StandardCharsets.UTF_16LE;
+		if (!(messageClass instanceof MsgDocument)) {
+			messageClass = root.getEntry(PROPERTY_STREAM_PREFIX + "001A001E");
+			charset = StandardCharsets.ISO_8859_1;
+		}
+		if (!(messageClass instanceof MsgDocument) || ((MsgDocument) messageClass).getSize() > PROBE_MESSAGE_CLASS_BYTE_LIMIT) {
+			return new OutlookMessageProbe(Verdict.NOT_OUTLOOK_MESSAGE, null);
+		}
+		return new OutlookMessageProbe(Verdict.OUTLOOK_MESSAGE, new String(((MsgDocument) messageClass).read(), charset));
+	}
+
+	/**
+	 * Reads the envelope of a .msg file: its message class, subject, sender, date, recipient count and attachment sizes. Only the property
+	 * streams holding those fields are read. Bodies are not decoded and attachment data is not read (attachment sizes come from the directory
+	 * entries), which makes this much cheaper than {@link #parseMsg(Path)} for listing or triaging messages.
+	 *
+	 * @param msgFile The path to the .msg file.
+	 * @return The envelope of the .msg file.
+	 * @throws IOException Thrown if the file could not be loaded or parsed.
+	 */
+	public OutlookMessageEnvelope parseEnvelope(@NotNull final Path msgFile)
+			throws IOException {
+		try (MsgContainer container = containerBackend.open(msgFile)) {
+			return parseEnvelope(container);
+		}
+	}
+
+	/**
+	 * Reads the envelope of a .msg file held in a (heap or direct) buffer, see {@link #parseEnvelope(Path)}. The buffer's position and limit
+	 * are left untouched.
+	 *
+	 * @param msgFileBuffer The .msg file as a buffer, from its position up to its limit.
+	 * @return The envelope of the .msg file.
+	 * @throws IOException Thrown if the buffer could not be parsed.
+	 */
+	public OutlookMessageEnvelope parseEnvelope(@NotNull final ByteBuffer msgFileBuffer)
+			throws IOException {
+		try (MsgContainer container = containerBackend.open(msgFileBuffer)) {
+			return parseEnvelope(container);
+		}
+	}
+
+	/**
+	 * Reads the envelope of a .msg file from an already opened container, see {@link #parseEnvelope(Path)}. The container is not closed.
+	 *
+	 * @param container The opened .msg container.
+	 * @return The envelope of the .msg file.
+	 * @throws IOException Thrown if the container could not be read or parsed.
+	 */
+	public OutlookMessageEnvelope parseEnvelope(@NotNull final MsgContainer container)
+			throws IOException {
+		final Map<Integer, MsgDocument> documents = new HashMap<>();
+		int recipientCount = 0;
+		final List<Integer> attachmentSizes = new ArrayList<>();
+		final MsgDirectory root = container.getRoot();
+		for (final MsgEntry entry : root.getEntries()) {
+			if (entry instanceof MsgDirectory) {
+				if (entry.getName().startsWith("__recip_version1.0")) {
+					recipientCount++;
+				} else if (entry.getName().startsWith("__attach_version1.0")) {
+					final MsgEntry attachmentData = ((MsgDirectory) entry).getEntry(ATTACHMENT_DATA_KEY);
+					attachmentSizes.add(attachmentData instanceof MsgDocument ? ((MsgDocument) attachmentData).getSize() : -1);
+				}
+			} else if (entry instanceof MsgDocument) {
+				final OutlookFieldInformation info = analyzeDocumentEntry((MsgDocument) entry);
+				if (info.getMapiType() != OutlookFieldInformation.UNKNOWN_MAPITYPE) {
+					documents.put(info.getTag(), (MsgDocument) entry);
+				}
+			}
+		}
+
+		final MsgEntry propertiesDocument = root.getEntry(PROPS_KEY);
+		final List<OutlookMessageProperty> properties = propertiesDocument instanceof MsgDocument
+				? decodePropertiesStream((MsgDocument) propertiesDocument, TOP_LEVEL_PROPERTIES_HEADER_SIZE)
+				: Collections.<OutlookMessageProperty>emptyList();
+		final Charset string8Charset = getString8Charset(properties);
+
+		String subject = readEnvelopeString(root, documents, 0x37, string8Charset); //SUBJECT
+		if (subject == null) {
+			subject = readEnvelopeString(root, documents, 0xe1d, string8Charset); //NORMALIZED SUBJECT
+		}
+		String fromEmail = null;
+		// SENT REPRESENTING EMAIL ADDRESS, SENT REPRESENTING SMTP ADDRESS, SENDER EMAIL ADDRESS, SENDER SMTP ADDRESS
+		// (the plain email addresses are X.500 addresses for Exchange senders, in which case the SMTP variants hold the address)
+		for (final int fromEmailPropertyId : new int[] { 0x65, 0x5d02, 0xc1f, 0x5d01 }) {
+			final String candidate = readEnvelopeString(root, documents, fromEmailPropertyId, string8Charset);
+			if (candidate != null && candidate.contains("@")) {
+				fromEmail = candidate;
+				break;
+			}
+		}
+		Object clientSubmitTime = null;
+		Object creationTime = null;
+		for (final OutlookMessageProperty property : properties) {
+			if (property.getId() == 0x39) { //CLIENT SUBMIT TIME
+				clientSubmitTime = property.getData();
+			} else if (property.getId() == 0x3007) { //CREATION TIME
+				creationTime = property.getData();
+			}
+		}
+		final Date date = (Date) (clientSubmitTime != null ? clientSubmitTime : creationTime);
+		return new OutlookMessageEnvelope(readEnvelopeString(root, documents, 0x1a, string8Charset), subject,
+				readEnvelopeString(root, documents, 0x42, string8Charset), fromEmail,
+				date, recipientCount, attachmentSizes);
+	}
+
+	/**
+	 * @return The preferred or, if there is none, the other variant of a string property (see {@link #setPreferUnicodeStrings(boolean)}),
+	 * decoded the same way {@link #parseMsg(Path)} does.
+	 */
+	private String readEnvelopeString(final MsgDirectory root, final Map<Integer, MsgDocument> documents, final int propertyId,
+			@Nullable final Charset string8Charset)
+			throws IOException {
+		MsgDocument de = documents.get(propertyId << 16 | (preferUnicodeStrings ? 0x1f : 0x1e));
+		if (de == null) {
+			de = documents.get(propertyId << 16 | (preferUnicodeStrings ? 0x1e : 0x1f));
 		}
+		return de != null ? (String) getMessagePropertyFromDocumentEntry(root, de, null, string8Charset).getData() : null;
 	}
 
 	/**
@@ -133,13 +490,212 @@ public class OutlookMessageParser {
 	public OutlookMessage parseMsg(@NotNull final InputStream msgFileInputStream)
 			throws IOException {
 		try (InputStream managedMsgFileInputStream = msgFileInputStream) {
-			// the .msg file, like a file system, contains directories and documents within this directories
-			// we now gain access to the root node and recursively go through the complete 'filesystem'.
-			final OutlookMessage msg = new OutlookMessage();
-			checkDirectoryEntry(new POIFSFileSystem(managedMsgFileInputStream).getRoot(), msg);
-			convertHeaders(msg);
-			purgeEmptyAttachments(msg);
+			if (tempFileThreshold < 0) {
+				return parseMsg(ByteBuffer.wrap(IOUtils.toByteArray(managedMsgFileInputStream)));
+			}
+			// read up to one byte beyond the threshold, so we know whether the stream fits in memory
+			final ByteArrayOutputStream head = new ByteArrayOutputStream();
+			if (IOUtils.copyLarge(managedMsgFileInputStream, head, 0, tempFileThreshold + 1) <= tempFileThreshold) {
+				return parseMsg(ByteBuffer.wrap(head.toByteArray()));
+			}
+			return parseMsgFromTempFile(head, managedMsgFileInputStream);
+		}
+	}
+
+	/**
+	 * Spools the remainder of a stream that exceeded {@link #tempFileThreshold} to a temporary file and parses it by position. All data is read
+	 * out of the container during parsing, so the temporary file is deleted again before returning. The file is deliberately not memory-mapped,
+	 * as some platforms refuse to delete a file while a mapping of it is still reachable.
+	 */
+	private OutlookMessage parseMsgFromTempFile(@NotNull final ByteArrayOutputStream head, @NotNull final InputStream remainder)
+			throws IOException {
+		final Path tempFile = Files.createTempFile("outlook-message-parser", ".msg");
+		try {
+			try (OutputStream tempFileOutputStream = Files.newOutputStream(tempFile)) {
+				head.writeTo(tempFileOutputStream);
+				IOUtils.copyLarge(remainder, tempFileOutputStream);
+			}
+			return parseMsg(FileChannel.open(tempFile, StandardOpenOption.READ));
+		} finally {
+			Files.deleteIfExists(tempFile);
+		}
+	}
+
+	/**
+	 * Parses all .msg entries of a ZIP archive, see {@link #parseZip(Path, Executor, int)}. Parsing blocks on inflating entries and on temporary
+	 * files, so entries are parsed on a dedicated pool with one (daemon) thread per available processor rather than on a shared pool. The pool
+	 * is shut down when the returned stream is closed.
+	 *
+	 * @param zipFile The ZIP archive containing .msg files.
+	 * @return The parsed messages in archive order. Must be closed to release the archive and the pool.
+	 * @throws IOException Thrown if the archive could not be opened.
+	 */
+	public Stream<OutlookMessage> parseZip(@NotNull final Path zipFile)
+			throws IOException {
+		final int threads = Runtime.getRuntime().availableProcessors();
+		final AtomicInteger threadCount = new AtomicInteger();
+		final ExecutorService executor = Executors.newFixedThreadPool(threads, task -> {
+			final Thread thread = new Thread(task, "outlook-message-parser-zip-" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		try {
+			return parseZip(zipFile, executor, threads).onClose(executor::shutdown);
+		} catch (IOException | RuntimeException e) {
+			executor.shutdown();
+			throw e;
+		}
+	}
+
+	/**
+	 * Parses all .msg entries of a ZIP archive straight from the archive, without extracting them first. Entries are parsed concurrently on the
+	 * given executor, while at most {@code maxEntriesInFlight} entries are being parsed or waiting to be consumed at any time. Peak memory is
+	 * therefore bounded by that window rather than by the size of the archive.
+	 * <p>
+	 * The returned stream yields messages in archive order and must be closed to release the archive (e.g. with try-with-resources). Closing it
+	 * waits for the entries that are being parsed at that moment. Entries that could not be parsed surface as {@link UncheckedIOException} from
+	 * the stream. Once the stream is closed, it can no longer be iterated.
+	 *
+	 * @param zipFile            The ZIP archive containing .msg files.
+	 * @param executor           The executor to parse entries on.
+	 * @param maxEntriesInFlight The maximum number of entries parsed ahead of the consumer.
+	 * @return The parsed messages in archive order. Must be closed to release the archive.
+	 * @throws IOException Thrown if the archive could not be opened.
+	 */
+	public Stream<OutlookMessage> parseZip(@NotNull final Path zipFile, @NotNull final Executor executor, final int maxEntriesInFlight)
+			throws IOException {
+		if (maxEntriesInFlight < 1) {
+			throw new IllegalArgumentException("maxEntriesInFlight must be at least 1, got " + maxEntriesInFlight);
+		}
+		final ZipEntryParser zipEntryParser = new ZipEntryParser(new ZipFile(zipFile.toFile()), executor, maxEntriesInFlight);
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(zipEntryParser, Spliterator.ORDERED | Spliterator.NONNULL), false)
+				.onClose(zipEntryParser::close);
+	}
+
+	/**
+	 * Parses all .msg files in a directory (not recursing into subdirectories), see {@link #parseDirectory(Path, int)}. Four files are read ahead
+	 * of the one being parsed.
+	 *
+	 * @param directory The directory containing .msg files.
+	 * @return The parsed messages, ordered by file name.
+	 * @throws IOException Thrown if the directory could not be listed.
+	 */
+	public Stream<OutlookMessage> parseDirectory(@NotNull final Path directory)
+			throws IOException {
+		return parseDirectory(directory, 4);
+	}
+
+	/**
+	 * Parses all .msg files in a directory (not recursing into subdirectories), ordered by file name. While a file is being parsed on the
+	 * consuming thread, the next {@code filesAhead} files are already read into memory with {@link AsynchronousFileChannel}, so disk (or network)
+	 * I/O overlaps with decoding instead of each file blocking on its own read. Peak memory is therefore bounded by that window of files.
+	 * <p>
+	 * Files that could not be read or parsed surface as {@link UncheckedIOException} from the stream. Closing the stream stops further reads.
+	 *
+	 * @param directory  The directory containing .msg files.
+	 * @param filesAhead The maximum number of files read ahead of the consumer.
+	 * @return The parsed messages, ordered by file name.
+	 * @throws IOException Thrown if the directory could not be listed.
+	 */
+	public Stream<OutlookMessage> parseDirectory(@NotNull final Path directory, final int filesAhead)
+			throws IOException {
+		if (filesAhead < 1) {
+			throw new IllegalArgumentException("filesAhead must be at least 1, got " + filesAhead);
+		}
+		final List<Path> msgFiles;
+		try (Stream<Path> files = Files.list(directory)) {
+			msgFiles = files
+					.filter(file -> Files.isRegularFile(file) && file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".msg"))
+					.sorted()
+					.collect(Collectors.toList());
+		}
+		final ReadAheadFileParser readAheadFileParser = new ReadAheadFileParser(msgFiles.iterator(), filesAhead);
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(readAheadFileParser, Spliterator.ORDERED | Spliterator.NONNULL), false)
+				.onClose(readAheadFileParser::close);
+	}
+
+	/**
+	 * Parses a .msg file from an already opened container, for example one opened by a specific {@link MsgContainerBackend} rather than the
+	 * one configured on this parser. The container is not closed; it remains owned by the caller.
+	 *
+	 * @param container The opened .msg container.
+	 * @return A {@link OutlookMessage} object representing the .msg file.
+	 * @throws IOException Thrown if the container could not be read or parsed.
+	 */
+	public OutlookMessage parseMsg(@NotNull final MsgContainer container)
+			throws IOException {
+		final OutlookMessage msg = new OutlookMessage();
+		parseMsg(container, msg, null);
+		return msg;
+	}
+
+	/**
+	 * Parses a .msg file provided in the specified path, but only decodes the bodies and other variable-length properties (strings and binary
+	 * data) when they are first accessed. Properties that are put into special attributes of the message (such as the subject or the mail
+	 * headers) and the recipients and attachments are still decoded right away.
+	 * <p>
+	 * The file stays open until the returned message is closed, after which properties that have not been accessed can no longer be read.
+	 * Like the message itself, deferred decoding is not thread-safe.
+	 *
+	 * @param msgFile The path to the .msg file.
+	 * @return An {@link OutlookMessage} object representing the .msg file, which has to be closed.
+	 * @throws IOException Thrown if the file could not be loaded or parsed.
+	 */
+	public OutlookMessage parseMsgLazily(@NotNull final Path msgFile)
+			throws IOException {
+		final LazyContainer lazyContainer = new LazyContainer(containerBackend.open(msgFile));
+		try {
+			final OutlookMessage msg = new OutlookMessage(lazyContainer);
+			parseMsg(lazyContainer.container, msg, lazyContainer);
 			return msg;
+		} catch (IOException | RuntimeException e) {
+			try {
+				lazyContainer.close();
+			} catch (IOException closeException) {
+				e.addSuppressed(closeException);
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * @param lazyContainer The container of a message parsed by {@link #parseMsgLazily(Path)}, {@code null} to decode all properties right away.
+	 */
+	private void parseMsg(@NotNull final MsgContainer container, @NotNull final OutlookMessage msg, @Nullable final LazyContainer lazyContainer)
+			throws IOException {
+		// the .msg file, like a file system, contains directories and documents within this directories
+		// we now gain access to the root node and recursively go through the complete 'filesystem'.
+		msg.setNamedProperties(parseNamedPropertyMapping(container.getRoot()));
+		checkDirectoryEntry(container.getRoot(), msg, TOP_LEVEL_PROPERTIES_HEADER_SIZE, lazyContainer);
+		convertHeaders(msg);
+		purgeEmptyAttachments(msg);
+	}
+
+	/**
+	 * Container of a message parsed by {@link #parseMsgLazily(Path)}, which stays open until the message is closed.
+	 */
+	private static final class LazyContainer implements Closeable {
+		private final MsgContainer container;
+		private volatile boolean closed;
+
+		private LazyContainer(final MsgContainer container) {
+			this.container = container;
+		}
+
+		private void checkOpen()
+				throws IOException {
+			if (closed) {
+				throw new IOException("The .msg file of the message has been closed");
+			}
+		}
+
+		@Override
+		public void close()
+				throws IOException {
+			if (!closed) {
+				closed = true;
+				container.close();
+			}
 		}
 	}
 	
@@ -168,12 +724,22 @@ public class OutlookMessageParser {
 		}
 	}
 	
+	/**
+	 * Checks the presence of the properties rather than the values of the message, so that deferred bodies are not decoded. Only properties
+	 * of parts included in the {@link #parseOptions} can tell, so a message of which none of them is included is never considered empty.
+	 */
 	private boolean messageIsEmpty(OutlookMessage msgAttachment) {
-		return msgAttachment.getMessageId() == null &&
-				msgAttachment.getSubject() == null &&
-				msgAttachment.getBodyText() == null &&
-				msgAttachment.getBodyRTF() == null &&
-				msgAttachment.getBodyHTML() == null;
+		final Set<Integer> propertyCodes = msgAttachment.getPropertyCodes();
+		boolean anyIncluded = false;
+		for (final int propertyId : EMPTY_MESSAGE_PROPERTY_IDS) {
+			if (parseOptions.includesMessageProperty(msgAttachment, propertyId)) {
+				if (propertyCodes.contains(propertyId)) {
+					return false;
+				}
+				anyIncluded = true;
+			}
+		}
+		return anyIncluded;
 	}
 	
 	static void extractReplyToHeader(@NotNull final OutlookMessage msg, @NotNull final String allHeaders) {
@@ -362,39 +928,256 @@ public class OutlookMessageParser {
 	}
 
 	/**
-	 * Recursively parses the complete .msg file with the help of the POI library. The parsed information is put into the {@link OutlookMessage} object.
+	 * Iterates the .msg entries of a ZIP archive, keeping a window of entries being parsed ahead of the consumer.
+	 */
+	private final class ZipEntryParser implements Iterator<OutlookMessage> {
+		private final ZipFile zipFile;
+		private final Executor executor;
+		private final int maxEntriesInFlight;
+		private final Iterator<? extends ZipEntry> pendingEntries;
+		private final Deque<CompletableFuture<OutlookMessage>> entriesInFlight = new ArrayDeque<>();
+		private volatile boolean closed;
+
+		private ZipEntryParser(ZipFile zipFile, Executor executor, int maxEntriesInFlight) {
+			this.zipFile = zipFile;
+			this.executor = executor;
+			this.maxEntriesInFlight = maxEntriesInFlight;
+			this.pendingEntries = zipFile.stream()
+					.filter(entry -> !entry.isDirectory() && entry.getName().toLowerCase(Locale.ROOT).endsWith(".msg"))
+					.iterator();
+		}
+
+		@Override
+		public boolean hasNext() {
+			if (closed) {
+				throw new IllegalStateException("Zip file " + zipFile.getName() + " has already been closed");
+			}
+			fillWindow();
+			return !entriesInFlight.isEmpty();
+		}
+
+		@Override
+		public OutlookMessage next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			try {
+				return entriesInFlight.poll().join();
+			} catch (CompletionException e) {
+				throw e.getCause() instanceof UncheckedIOException ? (UncheckedIOException) e.getCause() : e;
+			} finally {
+				fillWindow();
+			}
+		}
+
+		private void fillWindow() {
+			while (!closed && entriesInFlight.size() < maxEntriesInFlight && pendingEntries.hasNext()) {
+				final ZipEntry entry = pendingEntries.next();
+				entriesInFlight.add(CompletableFuture.supplyAsync(() -> parseZipEntry(entry), executor));
+			}
+		}
+
+		private OutlookMessage parseZipEntry(ZipEntry entry) {
+			if (closed) {
+				throw new CancellationException();
+			}
+			try {
+				return parseMsg(zipFile.getInputStream(entry));
+			} catch (IOException e) {
+				throw new UncheckedIOException("Could not parse zip entry " + entry.getName(), e);
+			}
+		}
+
+		/**
+		 * Waits for the entries in flight before closing the archive, as cancelling a {@link CompletableFuture} does not stop a task that is
+		 * already reading from it. Entries that did not start yet are skipped.
+		 */
+		private void close() {
+			closed = true;
+			for (final CompletableFuture<OutlookMessage> entryInFlight : entriesInFlight) {
+				try {
+					entryInFlight.join();
+				} catch (CompletionException | CancellationException e) {
+					// the consumer stopped before this entry, so its outcome is not of interest
+				}
+			}
+			entriesInFlight.clear();
+			try {
+				zipFile.close();
+			} catch (IOException e) {
+				LOGGER.error("Could not close zip file {}", zipFile.getName(), e);
+			}
+		}
+	}
+
+	/**
+	 * Iterates .msg files, keeping a window of files being read asynchronously ahead of the one being parsed.
+	 */
+	private final class ReadAheadFileParser implements Iterator<OutlookMessage> {
+		private final Iterator<Path> pendingFiles;
+		private final int filesAhead;
+		private final Deque<FileRead> filesInFlight = new ArrayDeque<>();
+
+		private ReadAheadFileParser(Iterator<Path> pendingFiles, int filesAhead) {
+			this.pendingFiles = pendingFiles;
+			this.filesAhead = filesAhead;
+		}
+
+		@Override
+		public boolean hasNext() {
+			fillWindow();
+			return !filesInFlight.isEmpty();
+		}
+
+		@Override
+		public OutlookMessage next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			final FileRead fileRead = filesInFlight.poll();
+			fillWindow();
+			try {
+				return parseMsg(fileRead.content.join());
+			} catch (CompletionException e) {
+				throw new UncheckedIOException("Could not read file " + fileRead.file, e.getCause() instanceof IOException
+						? (IOException) e.getCause()
+						: new IOException(e.getCause()));
+			} catch (IOException e) {
+				throw new UncheckedIOException("Could not parse file " + fileRead.file, e);
+			}
+		}
+
+		private void fillWindow() {
+			while (filesInFlight.size() < filesAhead && pendingFiles.hasNext()) {
+				final Path file = pendingFiles.next();
+				filesInFlight.add(new FileRead(file, readFully(file)));
+			}
+		}
+
+		private void close() {
+			for (final FileRead fileInFlight : filesInFlight) {
+				fileInFlight.content.cancel(false);
+			}
+			filesInFlight.clear();
+		}
+	}
+
+	private static final class FileRead {
+		private final Path file;
+		private final CompletableFuture<ByteBuffer> content;
+
+		private FileRead(Path file, CompletableFuture<ByteBuffer> content) {
+			this.file = file;
+			this.content = content;
+		}
+	}
+
+	/**
+	 * Reads a complete file into a heap buffer without blocking the calling thread. The buffer is flipped, ready to be parsed.
+	 */
+	private static CompletableFuture<ByteBuffer> readFully(@NotNull final Path file) {
+		final CompletableFuture<ByteBuffer> content = new CompletableFuture<>();
+		try {
+			final AsynchronousFileChannel channel = AsynchronousFileChannel.open(file, StandardOpenOption.READ);
+			try {
+				if (channel.size() > Integer.MAX_VALUE) {
+					throw new IOException("File too large to read into memory: " + file);
+				}
+				final ByteBuffer destination = ByteBuffer.allocate((int) channel.size());
+				channel.read(destination, 0, destination, new CompletionHandler<Integer, ByteBuffer>() {
+					@Override
+					public void completed(final Integer read, final ByteBuffer buffer) {
+						if (read >= 0 && buffer.hasRemaining() && !content.isDone()) {
+							channel.read(buffer, buffer.position(), buffer, this);
+						} else {
+							closeChannel();
+							((Buffer) buffer).flip();
+							content.complete(buffer);
+						}
+					}
+
+					@Override
+					public void failed(final Throwable exc, final ByteBuffer buffer) {
+						closeChannel();
+						content.completeExceptionally(exc);
+					}
+
+					private void closeChannel() {
+						try {
+							channel.close();
+						} catch (IOException e) {
+							LOGGER.warn("Could not close file {}", file, e);
+						}
+					}
+				});
+			} catch (IOException | RuntimeException e) {
+				channel.close();
+				throw e;
+			}
+		} catch (IOException e) {
+			content.completeExceptionally(e);
+		}
+		return content;
+	}
+
+	/**
+	 * Recursively parses the complete .msg file. The parsed information is put into the {@link OutlookMessage} object.
 	 *
-	 * @param dir The current node in the .msg file.
-	 * @param msg The resulting {@link OutlookMessage} object.
+	 * @param dir                  The current node in the .msg file.
+	 * @param msg                  The resulting {@link OutlookMessage} object.
+	 * @param propertiesHeaderSize The size of the header of the properties stream of the message.
+	 * @param lazyContainer        The container of a message parsed by {@link #parseMsgLazily(Path)}, or {@code null}.
 	 * @throws IOException Thrown if the .msg file could not be parsed.
 	 */
-	private void checkDirectoryEntry(final DirectoryEntry dir, final OutlookMessage msg)
+	private void checkDirectoryEntry(final MsgDirectory dir, final OutlookMessage msg, final int propertiesHeaderSize,
+			@Nullable final LazyContainer lazyContainer)
 			throws IOException {
+		final List<MsgEntry> entries = dir.getEntries();
+		// the properties stream is decoded up front, as the 8-bit strings of the message are decoded with the codepage it declares
+		MsgDocument propertiesDocument = null;
+		for (final MsgEntry entry : entries) {
+			if (entry instanceof MsgDocument && entry.getName().equalsIgnoreCase(PROPS_KEY)) {
+				propertiesDocument = (MsgDocument) entry;
+				break;
+			}
+		}
+		final List<OutlookMessageProperty> properties = propertiesDocument != null
+				? decodePropertiesStream(propertiesDocument, propertiesHeaderSize)
+				: Collections.<OutlookMessageProperty>emptyList();
+		final Charset string8Charset = getString8Charset(properties);
+		final Set<Integer> preferredStringTags = getPreferredStringTags(entries);
+
 		// we iterate through all entries in the current directory
-		for (final Iterator<?> iter = dir.getEntries(); iter.hasNext(); ) {
-			final Entry entry = (Entry) iter.next();
+		for (final MsgEntry entry : entries) {
 
 			// check whether the entry is either a directory entry or a document entry
 
-			if (entry.isDirectoryEntry()) {
-				final DirectoryEntry de = (DirectoryEntry) entry;
+			if (entry instanceof MsgDirectory) {
+				final MsgDirectory de = (MsgDirectory) entry;
 				// outlookAttachments have a special name and have to be handled separately at this point
 				if (de.getName().startsWith("__attach_version1.0")) {
-					parseAttachment(de, msg);
+					if (parseOptions.includes(Part.ATTACHMENT_METADATA) || parseOptions.includes(Part.ATTACHMENT_DATA)
+							|| parseOptions.includes(Part.NESTED_MESSAGES)) {
+						parseAttachment(de, msg, lazyContainer, string8Charset);
+					}
 				} else if (de.getName().startsWith("__recip_version1.0")) {
 					// a recipient entry has been found (which is also a directory entry itself)
-					checkRecipientDirectoryEntry(de, msg);
-				} else if (de.getName().startsWith("__nameid_version1.0")) {
-					// a named property mapping directory has been found. We have to ignore it because 
-					// we can not parse it yet and it creates conflicts with normal parsing see also [MS-OXMSG]
+					if (parseOptions.includes(Part.RECIPIENTS)) {
+						checkRecipientDirectoryEntry(de, msg, string8Charset);
+					}
+				} else if (de.getName().startsWith(NAMEID_KEY)) {
+					// the named property mapping has already been parsed up front (see parseNamedPropertyMapping),
+					// its streams are not properties themselves
 				} else {
 					// a directory entry has been found. this node will be recursively checked
-					checkDirectoryEntry(de, msg);
+					checkDirectoryEntry(de, msg, propertiesHeaderSize, lazyContainer);
 				}
-			} else if (entry.isDocumentEntry()) {
+			} else if (entry instanceof MsgDocument) {
 				// a document entry contains information about the mail (e.g, from, to, subject, ...)
-				final DocumentEntry de = (DocumentEntry) entry;
-				checkDirectoryDocumentEntry(de, msg);
+				final MsgDocument de = (MsgDocument) entry;
+				if (!hasPreferredVariant(de, preferredStringTags)) {
+					checkDirectoryDocumentEntry(dir, de, msg, properties, lazyContainer, string8Charset);
+				}
 			} /* else {
 				// any other type is not supported
 			} */
@@ -405,23 +1188,25 @@ public class OutlookMessageParser {
 	 * Parses a recipient directory entry which holds informations about one of possibly multiple recipients.
 	 * The parsed information is put into the {@link OutlookMessage} object.
 	 *
-	 * @param dir The current node in the .msg file.
-	 * @param msg The resulting {@link OutlookMessage} object.
+	 * @param dir            The current node in the .msg file.
+	 * @param msg            The resulting {@link OutlookMessage} object.
+	 * @param string8Charset The charset of the 8-bit strings of the message, see {@link #getString8Charset(List)}.
 	 * @throws IOException Thrown if the .msg file could not be parsed.
 	 */
-	private void checkRecipientDirectoryEntry(final DirectoryEntry dir, final OutlookMessage msg)
+	private void checkRecipientDirectoryEntry(final MsgDirectory dir, final OutlookMessage msg, @Nullable final Charset string8Charset)
 			throws IOException {
 		final OutlookRecipient recipient = new OutlookRecipient();
+		final List<MsgEntry> entries = dir.getEntries();
+		final Set<Integer> preferredStringTags = getPreferredStringTags(entries);
 
 		// we iterate through all entries in the current directory
-		for (final Iterator<?> iter = dir.getEntries(); iter.hasNext(); ) {
-			final Entry entry = (Entry) iter.next();
+		for (final MsgEntry entry : entries) {
 
 			// check whether the entry is either a directory entry
 			// or a document entry, while we are just interested in document entries on this level			
-			if (!entry.isDirectoryEntry() && entry.isDocumentEntry()) {
+			if (entry instanceof MsgDocument && !hasPreferredVariant((MsgDocument) entry, preferredStringTags)) {
 				// a document entry contains information about the mail (e.g, from, to, subject, ...)
-				checkRecipientDocumentEntry((DocumentEntry) entry, recipient);
+				checkRecipientDocumentEntry(dir, (MsgDocument) entry, recipient, string8Charset);
 			}
 		}
 
@@ -431,24 +1216,33 @@ public class OutlookMessageParser {
 
 	/**
 	 * Parses a directory document entry which can either be a simple entry or
-	 * a stream that has to be split up into multiple document entries again.
-	 * The parsed information is put into the {@link OutlookMessage} object.
+	 * the properties stream, whose properties have already been decoded.
+	 * The parsed information is put into the {@link OutlookMessage} object,
+	 * unless it is not included in the {@link #parseOptions}.
 	 *
-	 * @param de  The current node in the .msg file.
-	 * @param msg The resulting {@link OutlookMessage} object.
+	 * @param dir            The directory containing the current node.
+	 * @param de             The current node in the .msg file.
+	 * @param msg            The resulting {@link OutlookMessage} object.
+	 * @param properties     The decoded properties stream of the message.
+	 * @param lazyContainer  The container of a message parsed by {@link #parseMsgLazily(Path)}, or {@code null}.
+	 * @param string8Charset The charset of the 8-bit strings of the message, see {@link #getString8Charset(List)}.
 	 * @throws IOException Thrown if the .msg file could not be parsed.
 	 */
-	private void checkDirectoryDocumentEntry(final DocumentEntry de, final OutlookMessage msg)
+	private void checkDirectoryDocumentEntry(final MsgDirectory dir, final MsgDocument de, final OutlookMessage msg,
+			final List<OutlookMessageProperty> properties, @Nullable final LazyContainer lazyContainer, @Nullable final Charset string8Charset)
 			throws IOException {
+		final RtfToHtmlConverter converter = parseOptions.includes(Part.CONVERTED_HTML) ? rtf2htmlConverter : null;
 		if (de.getName().startsWith(PROPS_KEY)) {
-			//TODO: parse properties stream
-			final List<DocumentEntry> deList = getDocumentEntriesFromPropertiesStream(de);
-			for (final DocumentEntry deFromProps : deList) {
-				final OutlookMessageProperty msgProp = getMessagePropertyFromDocumentEntry(deFromProps);
-				msg.setProperty(msgProp, rtf2htmlConverter);
+			for (final OutlookMessageProperty msgProp : properties) {
+				if (parseOptions.includesMessageProperty(msg, msgProp.getId())) {
+					msg.setProperty(msgProp, converter);
+				}
 			}
 		} else {
-			msg.setProperty(getMessagePropertyFromDocumentEntry(de), rtf2htmlConverter);
+			final OutlookFieldInformation info = analyzeDocumentEntry(de);
+			if (info.getMapiType() == OutlookFieldInformation.UNKNOWN_MAPITYPE || parseOptions.includesMessageProperty(msg, info.getTag() >>> 16)) {
+				msg.setProperty(getMessagePropertyFromDocumentEntry(dir, de, lazyContainer, string8Charset), converter);
+			}
 		}
 	}
 
@@ -457,144 +1251,170 @@ public class OutlookMessageParser {
 	 * a stream that has to be split up into multiple document entries again.
 	 * The parsed information is put into the {@link OutlookRecipient} object.
 	 *
-	 * @param de        The current node in the .msg file.
-	 * @param recipient The resulting {@link OutlookRecipient} object.
+	 * @param dir            The recipient directory containing the current node.
+	 * @param de             The current node in the .msg file.
+	 * @param recipient      The resulting {@link OutlookRecipient} object.
+	 * @param string8Charset The charset of the 8-bit strings of the message, see {@link #getString8Charset(List)}.
 	 * @throws IOException Thrown if the .msg file could not be parsed.
 	 */
-	private void checkRecipientDocumentEntry(final DocumentEntry de, final OutlookRecipient recipient)
+	private void checkRecipientDocumentEntry(final MsgDirectory dir, final MsgDocument de, final OutlookRecipient recipient,
+			@Nullable final Charset string8Charset)
 			throws IOException {
 		if (de.getName().startsWith(PROPS_KEY)) {
-			//TODO: parse properties stream
-			final List<DocumentEntry> deList = getDocumentEntriesFromPropertiesStream(de);
-			for (final DocumentEntry deFromProps : deList) {
-				final OutlookMessageProperty msgProp = getMessagePropertyFromDocumentEntry(deFromProps);
+			for (final OutlookMessageProperty msgProp : decodePropertiesStream(de, RECIPIENT_PROPERTIES_HEADER_SIZE)) {
 				recipient.setProperty(msgProp);
 			}
 		} else {
-			recipient.setProperty(getMessagePropertyFromDocumentEntry(de));
+			recipient.setProperty(getMessagePropertyFromDocumentEntry(dir, de, null, string8Charset));
 		}
 	}
 
 	/**
-	 * Parses a document entry which has been detected to be a stream of document entries itself. This stream is identified by the key
-	 * "__properties_version1.0".
+	 * Parses the named property mapping ([MS-OXMSG] 2.2.3) of a .msg file, which maps the named properties it uses to property ids of
+	 * 0x8000 and above. Each 8-byte entry of the entry stream holds the numeric id of the named property or the offset of its name in the
+	 * string stream, followed by its kind (bit 0), the index of its GUID (bits 1 - 15) and its property index (bits 16 - 31).
 	 *
-	 * @param de The stream to be parsed.
-	 * @return A list of document entries for further processing.
-	 * @throws IOException Thrown if the properties stream could not be parsed.
+	 * @param root The root directory of the .msg file.
+	 * @return The named properties by property id, empty if the .msg file has no (readable) mapping.
+	 * @throws IOException Thrown if the streams of the mapping could not be read.
 	 */
-	@SuppressFBWarnings("RR_NOT_CHECKED")
-	private List<DocumentEntry> getDocumentEntriesFromPropertiesStream(final DocumentEntry de)
+	private static Map<Integer, OutlookNamedProperty> parseNamedPropertyMapping(final MsgDirectory root)
 			throws IOException {
-		final List<DocumentEntry> result = new ArrayList<>();
-		DocumentInputStream dstream = null;
-		try {
-			dstream = new DocumentInputStream(de);
-
-			final int headerLength = 4;
-			final int flagsLength = 4;
-			byte[] bytes = new byte[headerLength];
-			while (dstream.read(bytes) == headerLength) {
-				final StringBuilder header = new StringBuilder();
-				for (int i = bytes.length - 1; i >= 0; i--) {
-					header.append(bytesToHex(new byte[] { bytes[i] }));
-				}
-
-				//header ready for use
-				final String type = header.substring(4);
-				final String clazz = header.substring(0, 4);
-
-				int typeNumber = -1;
-				try {
-					typeNumber = Integer.parseInt(type, 16);
-				} catch (final NumberFormatException e) {
-					LOGGER.error("Unexpected type: {}", type, e);
+		final MsgEntry nameid = root.getEntry(NAMEID_KEY);
+		if (!(nameid instanceof MsgDirectory)) {
+			return Collections.emptyMap();
+		}
+		final byte[] guids = readNameidStream((MsgDirectory) nameid, NAMEID_GUID_STREAM_KEY);
+		final byte[] entries = readNameidStream((MsgDirectory) nameid, NAMEID_ENTRY_STREAM_KEY);
+		final ByteBuffer entryBuffer = ByteBuffer.wrap(entries).order(ByteOrder.LITTLE_ENDIAN);
+		final ByteBuffer stringBuffer = ByteBuffer.wrap(readNameidStream((MsgDirectory) nameid, NAMEID_STRING_STREAM_KEY)).order(ByteOrder.LITTLE_ENDIAN);
+		final Map<Integer, OutlookNamedProperty> namedProperties = new HashMap<>(entries.length / NAMEID_ENTRY_SIZE * 2);
+		for (int offset = 0; offset + NAMEID_ENTRY_SIZE <= entries.length; offset += NAMEID_ENTRY_SIZE) {
+			final int nameIdOrStringOffset = entryBuffer.getInt(offset);
+			final int indexAndKind = entryBuffer.getInt(offset + 4);
+			final UUID guid = getNameidGuid(guids, indexAndKind >>> 1 & 0x7FFF);
+			if (guid == null) {
+				continue;
+			}
+			if ((indexAndKind & 1) == 0) {
+				namedProperties.put(0x8000 + (indexAndKind >>> 16), OutlookNamedProperty.ofId(guid, nameIdOrStringOffset));
+			} else {
+				final String name = getNameidString(stringBuffer, nameIdOrStringOffset);
+				if (name != null) {
+					namedProperties.put(0x8000 + (indexAndKind >>> 16), OutlookNamedProperty.ofName(guid, name));
 				}
+			}
+		}
+		return namedProperties;
+	}
 
-				if (!clazz.equals("0000")) { // what is this?
-					//reading and ignoring flags
-					bytes = new byte[flagsLength];
-					//noinspection ResultOfMethodCallIgnored
-					dstream.read(bytes);
-					//System.out.println("flags: " + bytesToHex(bytes));
-
-					// reading data
-					if (typeNumber == 0x48 //CLSID
-							|| typeNumber == 0x1e //STRING
-							|| typeNumber == 0x1f //UNICODE STRING
-							|| typeNumber == 0xd //OBJECT
-							|| typeNumber == 0x102) { //BINARY
-						//found datatype with variable length, thus the value is stored in a separate string
-						//no data available inside the properties stream
-						//reading and ignoring size
-						bytes = null;
-						//noinspection ResultOfMethodCallIgnored
-						dstream.read(new byte[4]);
-						//noinspection ResultOfMethodCallIgnored
-						dstream.read(new byte[4]); //read and ignore padding
-					} else if (typeNumber == 0x3 //INT
-							|| typeNumber == 0x4 //FLOAT
-							|| typeNumber == 0xa //ERROR
-							|| typeNumber == 0xb //BOOLEAN
-							|| typeNumber == 0x2) { //SHORT
-						// 4 bytes
-						bytes = new byte[4];
-						//noinspection ResultOfMethodCallIgnored
-						dstream.read(bytes);
-						//noinspection ResultOfMethodCallIgnored
-						dstream.read(new byte[4]); //read and ignore padding
-					} else if (typeNumber == 0x5 //DOUBLE
-							|| typeNumber == 0x7 //APPTIME
-							|| typeNumber == 0x6 //CURRENCY
-							|| typeNumber == 0x14 //INT8BYTE
-							|| typeNumber == 0x40) { //SYSTIME
-						// 8 bytes
-						bytes = new byte[8];
-						//noinspection ResultOfMethodCallIgnored
-						dstream.read(bytes);
-					}
-					//stream ready for use
-
-					if (bytes != null) {
-						//creating new document entry for later processing of all document entries
-						final POIFSFileSystem poifs = new POIFSFileSystem();
-						result.add(poifs.createDocument(new ByteArrayInputStream(bytes), "__substg1.0_" + header));
-					}
-				}
+	private static byte[] readNameidStream(final MsgDirectory nameid, final String name)
+			throws IOException {
+		final MsgEntry stream = nameid.getEntry(name);
+		return stream instanceof MsgDocument ? ((MsgDocument) stream).read() : new byte[0];
+	}
 
-				//start over with new byte[] for next header
-				bytes = new byte[headerLength];
-			}
+	/**
+	 * @return The name at the given offset of the string stream of the named property mapping, which is preceded by its length in bytes, or
+	 * {@code null} if it is out of bounds.
+	 */
+	@Nullable
+	private static String getNameidString(final ByteBuffer strings, final int offset) {
+		if (offset < 0 || offset > strings.limit() - 4) {
+			return null;
+		}
+		final int length = strings.getInt(offset);
+		if (length < 0 || length > strings.limit() - offset - 4) {
+			return null;
+		}
+		return new String(strings.array(), offset + 4, length, StandardCharsets.UTF_16LE);
+	}
 
-			return result;
+	/**
+	 * @return The GUID with the given index in the named property mapping, or {@code null} if there is none. Index 1 and 2 are the
+	 * predefined PS_MAPI and PS_PUBLIC_STRINGS property sets, the others refer to the GUID stream (which stores them in little-endian).
+	 */
+	@Nullable
+	private static UUID getNameidGuid(final byte[] guids, final int index) {
+		if (index == 1) {
+			return OutlookNamedProperty.PS_MAPI;
+		} else if (index == 2) {
+			return OutlookNamedProperty.PS_PUBLIC_STRINGS;
+		}
+		final int offset = (index - NAMEID_FIRST_STREAM_GUID_INDEX) * NAMEID_GUID_SIZE;
+		if (offset < 0 || offset + NAMEID_GUID_SIZE > guids.length) {
+			return null;
+		}
+		final ByteBuffer guid = ByteBuffer.wrap(guids, offset, NAMEID_GUID_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+		final long mostSignificantBits = (guid.getInt(offset) & 0xFFFFFFFFL) << 32 | (guid.getShort(offset + 4) & 0xFFFFL) << 16
+				| guid.getShort(offset + 6) & 0xFFFFL;
+		final long leastSignificantBits = guid.order(ByteOrder.BIG_ENDIAN).getLong(offset + 8);
+		return new UUID(mostSignificantBits, leastSignificantBits);
+	}
 
-		} finally {
-			if (dstream != null) {
-				dstream.close();
+	/**
+	 * Decodes the fixed-length properties of a properties stream (identified by the key "__properties_version1.0") in a single pass over its
+	 * 16-byte entries ([MS-OXMSG] 2.4.2.1). Variable-length properties only have their size in this stream, their value is stored in a
+	 * separate "__substg1.0_" document.
+	 *
+	 * @param de         The stream to be decoded.
+	 * @param headerSize The size of the header preceding the property entries, which depends on the storage the stream is in.
+	 * @return The fixed-length properties, in stream order.
+	 * @throws IOException Thrown if the properties stream could not be read.
+	 */
+	private static List<OutlookMessageProperty> decodePropertiesStream(final MsgDocument de, final int headerSize)
+			throws IOException {
+		final byte[] stream = de.read();
+		final ByteBuffer entries = ByteBuffer.wrap(stream).order(ByteOrder.LITTLE_ENDIAN);
+		final List<OutlookMessageProperty> result = new ArrayList<>();
+		for (int offset = headerSize; offset + PROPERTY_ENTRY_SIZE <= stream.length; offset += PROPERTY_ENTRY_SIZE) {
+			// property tag (id in the high word, type in the low word), 4 bytes of flags and 8 bytes of value
+			final int propertyTag = entries.getInt(offset);
+			if (propertyTag >>> 16 != 0 && OutlookMessageProperty.isFixedWidthType(propertyTag & 0xFFFF)) {
+				result.add(OutlookMessageProperty.ofFixedWidth(propertyTag, entries.getLong(offset + 8)));
 			}
+			// variable-length properties are read from their own document, other types are not supported yet
 		}
-
+		return result;
 	}
 
 	/**
 	 * Reads a property from a document entry and puts it's type and data to a {@link OutlookMessageProperty} object.
 	 *
-	 * @param de The {@link DocumentEntry} to be read.
+	 * @param dir            The directory containing the document entry.
+	 * @param de             The {@link MsgDocument} to be read.
+	 * @param lazyContainer  The container of a message parsed by {@link #parseMsgLazily(Path)}, in which case strings and binary data are only
+	 *                       decoded when first accessed, or {@code null}.
+	 * @param string8Charset The charset of the 8-bit strings of the message, see {@link #getString8Charset(List)}.
 	 * @return An object holding the type and data of the read property.
 	 * @throws IOException In case the property could not be parsed.
 	 */
-	private OutlookMessageProperty getMessagePropertyFromDocumentEntry(final DocumentEntry de)
+	private OutlookMessageProperty getMessagePropertyFromDocumentEntry(final MsgDirectory dir, final MsgDocument de,
+			@Nullable final LazyContainer lazyContainer, @Nullable final Charset string8Charset)
 			throws IOException {
 		// analyze the document entry
 		// (i.e., get class and data type)
 		final OutlookFieldInformation info = analyzeDocumentEntry(de);
+		final int mapiType = info.getMapiType();
+		if (OutlookMessageProperty.isFixedWidthType(mapiType)) {
+			return OutlookMessageProperty.ofFixedWidth(info.getTag(), readLittleEndianLong(de));
+		}
+		if (mapiType != OutlookFieldInformation.UNKNOWN_MAPITYPE && (mapiType & MULTI_VALUED_FLAG) != 0) {
+			return new OutlookMessageProperty(info.getTag(), getMultiValuedData(dir, de, mapiType, string8Charset), de.getSize());
+		}
+		if (lazyContainer != null && (mapiType == 0x1e || mapiType == 0x1f || mapiType == 0x102)) {
+			return OutlookMessageProperty.ofDeferred(info.getTag(), de.getSize(), () -> {
+				lazyContainer.checkOpen();
+				return getData(de, info, string8Charset);
+			});
+		}
 		// create a Java object from the data provided
 		// by the input stream. depending on the field
 		// information, either a String or a byte[] will
 		// be returned. other datatypes are not yet supported
-		final Object data = getData(de, info);
+		final Object data = getData(de, info, string8Charset);
 		LOGGER.trace("  Document data: {}", data);
-		return new OutlookMessageProperty(info.getClazz(), data, de.getSize());
+		return new OutlookMessageProperty(info.getTag(), data, de.getSize());
 	}
 
 	/**
@@ -604,13 +1424,14 @@ public class OutlookMessageParser {
 	 * or a byte[] (e.g., for outlookAttachments) Object
 	 * containing this data.
 	 *
-	 * @param de   The Document Entry.
-	 * @param info The field information that is needed to determine the data type of the input stream.
+	 * @param de             The Document Entry.
+	 * @param info           The field information that is needed to determine the data type of the input stream.
+	 * @param string8Charset The charset of the 8-bit strings of the message, see {@link #getString8Charset(List)}.
 	 * @return The String/byte[] object representing the data.
 	 * @throws IOException                   Thrown if the .msg file could not be parsed.
 	 * @throws UnsupportedOperationException Thrown if the .msg file contains unknown data.
 	 */
-	private Object getData(final DocumentEntry de, final OutlookFieldInformation info)
+	private Object getData(final MsgDocument de, final OutlookFieldInformation info, @Nullable final Charset string8Charset)
 			throws IOException {
 		// if there is no field information available, we simply
 		// return null. in that case, we're not interested in the
@@ -619,11 +1440,8 @@ public class OutlookMessageParser {
 			return null;
 		}
 
-		// if the type is 001e (we know it is lower case
-		// because analyzeDocumentEntry stores the type in
-		// lower case), we create a String object from the data.
-		// the encoding of the binary data is most probably
-		// ISO-8859-1 (not pure ASCII).
+		// if the type is 001e, we create a String object from the data,
+		// using the codepage of the message if it declares one
 		final int mapiType = info.getMapiType();
 
 		switch (mapiType) {
@@ -632,35 +1450,9 @@ public class OutlookMessageParser {
 				// in that case, we're not interested in the data anyway
 				return null;
 			case 0x1e:
-				// we put the complete data into a byte[] object...
-				final byte[] textBytes1e = getBytesFromDocumentEntry(de);
-				// ...and create a String object from it
-				String convertedString = new String(textBytes1e, StandardCharsets.ISO_8859_1);
-				final Matcher m = XML_CHARSET_PATTERN.matcher(convertedString);
-				if (m.find()) {
-					try {
-						final Charset charset = Charset.forName(m.group("charset"));
-						return new String(textBytes1e, charset);
-					} catch (Exception e) {
-						// fallback on default encoding
-					}
-				}
-				return convertedString;
+				return decodeString8(getBytesFromDocumentEntry(de), string8Charset);
 			case 0x1f:
-				// Unicode encoding with lowbyte followed by hibyte
-				// Note: this is arcane guesswork, but it works
-				final byte[] textBytes1f = getBytesFromDocumentEntry(de);
-				// now that we have all bytes from the stream,
-				// we can now convert the byte array into
-				// a character array by switching hi- and lowbytes
-				final char[] characters = new char[textBytes1f.length / 2];
-				int c = 0;
-				for (int i = 0; i < textBytes1f.length - 1; i = i + 2) {
-					final int ch = (int) textBytes1f[i + 1];
-					final int cl = (int) textBytes1f[i] & 0xff; //Using unsigned value (thanks to Reto Schuettel)
-					characters[c++] = (char) ((ch << 8) + cl);
-				}
-				return new String(characters);
+				return decodeUnicodeString(getBytesFromDocumentEntry(de));
 			case 0x102:
 				try {
 					// the data is read into a byte[] object
@@ -671,30 +1463,6 @@ public class OutlookMessageParser {
 					// To keep compatible with previous implementations, we return an empty array here
 					return new byte[0];
 				}
-			case 0x2:
-				return readLittleEndianShort(de);
-			case 0x3:
-				return readLittleEndianInt(de);
-			case 0x40:
-				// The following part has been provided by Morten Sørensen (Thanks!)
-
-				// This parsing has been lifted from the MsgViewer project
-				// https://sourceforge.net/projects/msgviewer/
-
-				// the data is read into a byte[] object
-				final byte[] bytes = getBytesFromDocumentEntry(de);
-				// Read the byte array as little endian byteorder
-				final ByteBuffer buff = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
-				buff.put(bytes);
-				// Convert the bytes to a long
-				// Nanoseconds since 1601
-				Long timeLong = buff.getLong(0);
-				// Convert to milliseconds
-				timeLong /= 10000L;
-				// Move the offset from since 1601 to 1970
-				timeLong -= 11644473600000L;
-				// Convert to a Date object, and return
-				return new Date(timeLong);
 			default:
 				// this should not happen
 				LOGGER.trace("Unknown field type {}", mapiType);
@@ -703,114 +1471,384 @@ public class OutlookMessageParser {
 
 	}
 
-	private int readLittleEndianShort(final DocumentEntry de)
+	/**
+	 * Creates a String object from 8-bit string data, decoding it once.
+	 *
+	 * @param textBytes1e    The string data.
+	 * @param string8Charset The charset of the message's codepage. Without one, the encoding of the binary data is most probably ISO-8859-1
+	 *                       (not pure ASCII), unless the data declares an XML charset near its start.
+	 */
+	private static String decodeString8(final byte[] textBytes1e, @Nullable final Charset string8Charset) {
+		if (string8Charset != null) {
+			return new String(textBytes1e, string8Charset);
+		}
+		Charset charset = StandardCharsets.ISO_8859_1;
+		final int sniffLength = Math.min(textBytes1e.length, STRING8_CHARSET_SNIFF_BYTE_LIMIT);
+		final Matcher m = XML_CHARSET_PATTERN.matcher(new String(textBytes1e, 0, sniffLength, StandardCharsets.ISO_8859_1));
+		if (m.find()) {
+			try {
+				charset = Charset.forName(m.group("charset"));
+			} catch (Exception e) {
+				// fallback on default encoding
+			}
+		}
+		return new String(textBytes1e, charset);
+	}
+
+	/**
+	 * @param properties The decoded properties stream of a message.
+	 * @return The charset of the message codepage or, if there is none, of the internet codepage of the message, or {@code null} if it
+	 * declares neither (or only codepages Java does not support).
+	 */
+	@Nullable
+	private static Charset getString8Charset(final List<OutlookMessageProperty> properties) {
+		Charset internetCharset = null;
+		for (final OutlookMessageProperty property : properties) {
+			if (property.getId() == 0x3ffd) { //MESSAGE CODEPAGE
+				final Charset messageCharset = charsetForCodepage((int) property.getBits());
+				if (messageCharset != null) {
+					return messageCharset;
+				}
+			} else if (property.getId() == 0x3fde) { //INTERNET CODEPAGE
+				internetCharset = charsetForCodepage((int) property.getBits());
+			}
+		}
+		return internetCharset;
+	}
+
+	/**
+	 * @param codepage A Windows codepage identifier, such as 1252 or 65001.
+	 * @return The corresponding charset, or {@code null} if Java does not support it.
+	 */
+	@Nullable
+	private static Charset charsetForCodepage(final int codepage) {
+		final Optional<Charset> cached = CHARSET_BY_CODEPAGE.get(codepage);
+		if (cached != null) {
+			return cached.orElse(null);
+		}
+		Charset charset = null;
+		try {
+			charset = Charset.forName(charsetNameForCodepage(codepage));
+		} catch (IllegalArgumentException e) {
+			LOGGER.debug("Unsupported codepage {}, decoding 8-bit strings without it", codepage);
+		}
+		// codepages in malformed files can be arbitrary, so once the cache is full, further codepages are looked up every time
+		if (CHARSET_BY_CODEPAGE.size() < CHARSET_CACHE_LIMIT) {
+			CHARSET_BY_CODEPAGE.putIfAbsent(codepage, Optional.ofNullable(charset));
+		}
+		return charset;
+	}
+
+	private static String charsetNameForCodepage(final int codepage) {
+		switch (codepage) {
+			case 932:
+				return "windows-31j";
+			case 936:
+				return "GBK";
+			case 949:
+				return "x-windows-949";
+			case 950:
+				return "x-windows-950";
+			case 874:
+				return "x-windows-874";
+			case 1200:
+				return "UTF-16LE";
+			case 1201:
+				return "UTF-16BE";
+			case 10000:
+				return "x-MacRoman";
+			case 20127:
+				return "US-ASCII";
+			case 20866:
+				return "KOI8-R";
+			case 21866:
+				return "KOI8-U";
+			case 28591:
+			case 28592:
+			case 28593:
+			case 28594:
+			case 28595:
+			case 28596:
+			case 28597:
+			case 28598:
+			case 28599:
+			case 28603:
+			case 28605:
+				return "ISO-8859-" + (codepage - 28590);
+			case 50220:
+			case 50221:
+			case 50222:
+				return "ISO-2022-JP";
+			case 50225:
+				return "ISO-2022-KR";
+			case 51932:
+				return "EUC-JP";
+			case 51936:
+				return "GB2312";
+			case 51949:
+				return "EUC-KR";
+			case 54936:
+				return "GB18030";
+			case 65001:
+				return "UTF-8";
+			default:
+				// covers the Windows (cp1250 - cp1258) and DOS (cp437, cp850, ...) codepages
+				return "cp" + codepage;
+		}
+	}
+
+	/**
+	 * Creates a String object from Unicode (UTF-16LE) string data, decoding it in one pass with a per thread decoder rather than char by char.
+	 * The data is expected to be read completely already. A trailing odd byte cannot be part of a character and is ignored. Malformed data
+	 * (unpaired surrogates) is decoded code unit by code unit instead, see {@link #decodeUnicodeStringPerCodeUnit(byte[], int)}.
+	 */
+	private static String decodeUnicodeString(final byte[] textBytes1f) {
+		final int length = textBytes1f.length & ~1;
+		final CharsetDecoder decoder = UTF_16LE_DECODER.get().reset();
+		final CharBuffer characters = CharBuffer.allocate(length / 2);
+		if (decoder.decode(ByteBuffer.wrap(textBytes1f, 0, length), characters, true).isUnderflow() && decoder.flush(characters).isUnderflow()) {
+			return new String(characters.array(), 0, characters.position());
+		}
+		return decodeUnicodeStringPerCodeUnit(textBytes1f, length);
+	}
+
+	/**
+	 * Decodes UTF-16LE data code unit by code unit, replacing only the unpaired surrogates themselves with U+FFFD. The decoder would replace
+	 * an unpaired high surrogate together with the character following it, losing that character.
+	 */
+	private static String decodeUnicodeStringPerCodeUnit(final byte[] textBytes1f, final int length) {
+		final char[] characters = new char[length / 2];
+		for (int i = 0; i < characters.length; i++) {
+			characters[i] = (char) ((textBytes1f[2 * i + 1] & 0xff) << 8 | textBytes1f[2 * i] & 0xff);
+		}
+		for (int i = 0; i < characters.length; i++) {
+			if (Character.isHighSurrogate(characters[i]) && i + 1 < characters.length && Character.isLowSurrogate(characters[i + 1])) {
+				i++;
+			} else if (Character.isSurrogate(characters[i])) {
+				characters[i] = '\uFFFD';
+			}
+		}
+		return new String(characters);
+	}
+
+	/**
+	 * Reads a multi-valued property ([MS-OXMSG] 2.1.4.2.2). The values of fixed-width types are stored one after another in a single
+	 * document and are returned as a primitive array ({@code int[]}, {@code float[]}, {@code double[]} or {@code long[]}). Times are returned
+	 * as their raw FILETIMEs in a {@code long[]} as well (rather than as objects), which {@link OutlookMessageProperty#toInstant(long)}
+	 * converts. For variable-length types that document only holds the lengths of the values, which are stored in separate documents named
+	 * after it with a "-" and the 8 hex digit index of the value appended. These are returned as {@code String[]} or {@code byte[][]}, with
+	 * {@code null} for values whose document is missing.
+	 *
+	 * @param dir      The directory holding the document and, for variable-length types, the documents with the values.
+	 * @param de       The document of the property.
+	 * @param mapiType       The multi-valued MAPI property type, such as {@code 0x101F} for Unicode strings.
+	 * @param string8Charset The charset of the 8-bit strings of the message, see {@link #getString8Charset(List)}.
+	 * @return The values, or {@code null} for unsupported types.
+	 * @throws IOException Thrown if the documents could not be read.
+	 */
+	private Object getMultiValuedData(final MsgDirectory dir, final MsgDocument de, final int mapiType, @Nullable final Charset string8Charset)
 			throws IOException {
 		final byte[] bytes = getBytesFromDocumentEntry(de);
-		final ByteBuffer buff = ByteBuffer.allocate(Short.BYTES).order(ByteOrder.LITTLE_ENDIAN);
-		buff.put(bytes, 0, Math.min(bytes.length, Short.BYTES));
-		return buff.getShort(0);
+		final ByteBuffer buff = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+		switch (mapiType) {
+			case 0x1002: //MV SHORT
+				final int[] shorts = new int[bytes.length / Short.BYTES];
+				for (int i = 0; i < shorts.length; i++) {
+					shorts[i] = buff.getShort(i * Short.BYTES);
+				}
+				return shorts;
+			case 0x1003: //MV INT
+				final int[] ints = new int[bytes.length / Integer.BYTES];
+				buff.asIntBuffer().get(ints);
+				return ints;
+			case 0x1004: //MV FLOAT
+				final float[] floats = new float[bytes.length / Float.BYTES];
+				buff.asFloatBuffer().get(floats);
+				return floats;
+			case 0x1005: //MV DOUBLE
+			case 0x1007: //MV APPTIME
+				final double[] doubles = new double[bytes.length / Double.BYTES];
+				buff.asDoubleBuffer().get(doubles);
+				return doubles;
+			case 0x1006: //MV CURRENCY
+			case 0x1014: //MV LONG
+			case 0x1040: //MV SYSTIME
+				final long[] longs = new long[bytes.length / Long.BYTES];
+				buff.asLongBuffer().get(longs);
+				return longs;
+			case 0x1048: //MV CLSID
+				final byte[][] guids = new byte[bytes.length / MULTI_VALUED_GUID_SIZE][];
+				for (int i = 0; i < guids.length; i++) {
+					guids[i] = copyOfRange(bytes, i * MULTI_VALUED_GUID_SIZE, (i + 1) * MULTI_VALUED_GUID_SIZE);
+				}
+				return guids;
+			case 0x101e: //MV STRING8
+			case 0x101f: //MV UNICODE
+				// the lengths are 4 bytes each
+				final String[] strings = new String[bytes.length / Integer.BYTES];
+				for (int i = 0; i < strings.length; i++) {
+					final byte[] value = readMultiValuedValue(dir, de, i);
+					if (value != null) {
+						strings[i] = stripTrailingNulls(mapiType == 0x101e ? decodeString8(value, string8Charset) : decodeUnicodeString(value));
+					}
+				}
+				return strings;
+			case 0x1102: //MV BINARY
+				// the lengths are followed by 4 reserved bytes each
+				final byte[][] binaries = new byte[bytes.length / Long.BYTES][];
+				for (int i = 0; i < binaries.length; i++) {
+					binaries[i] = readMultiValuedValue(dir, de, i);
+				}
+				return binaries;
+			default:
+				LOGGER.trace("Unknown multi-valued field type {}", mapiType);
+				return null;
+		}
 	}
 
-	private int readLittleEndianInt(final DocumentEntry de)
+	@Nullable
+	private byte[] readMultiValuedValue(final MsgDirectory dir, final MsgDocument de, final int index)
 			throws IOException {
-		final byte[] bytes = getBytesFromDocumentEntry(de);
-		final ByteBuffer buff = ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
-		buff.put(bytes, 0, Math.min(bytes.length, Integer.BYTES));
-		return buff.getInt(0);
+		final MsgEntry value = dir.getEntry(format("%s-%08X", de.getName(), index));
+		return value instanceof MsgDocument ? getBytesFromDocumentEntry((MsgDocument) value) : null;
 	}
 
 	/**
-	 * Reads the bytes from the DocumentEntry.  This is a convenience method that
-	 * calls {@see #getBytesFromStream(InputStream)} internally. It ensures that the
-	 * opened input stream is closed at the end.
+	 * The values of multi-valued strings include their terminating null character.
+	 */
+	private static String stripTrailingNulls(final String value) {
+		int end = value.length();
+		while (end > 0 && value.charAt(end - 1) == '\0') {
+			end--;
+		}
+		return value.substring(0, end);
+	}
+
+	/**
+	 * @return The (at most) 8 bytes of a fixed-width property document as a little-endian value, padded with zero bytes.
+	 */
+	private long readLittleEndianLong(final MsgDocument de)
+			throws IOException {
+		final ByteBuffer scratch = FIXED_WIDTH_SCRATCH.get();
+		scratch.putLong(0, 0L);
+		de.read(scratch.array());
+		return scratch.getLong(0);
+	}
+
+	/**
+	 * Reads the bytes from the document entry.
 	 *
 	 * @param de The document entry that should be read.
 	 * @return The bytes of the document entry.
 	 * @throws IOException Thrown if the document entry could not be read.
 	 */
-	private byte[] getBytesFromDocumentEntry(final DocumentEntry de)
+	private byte[] getBytesFromDocumentEntry(final MsgDocument de)
 			throws IOException {
-		InputStream is = null;
-		try {
-			is = new DocumentInputStream(de);
-			return getBytesFromStream(is);
-		} finally {
-			if (is != null) {
-				try {
-					is.close();
-				} catch (final IOException e) {
-					LOGGER.error("Could not close input stream for document entry", e);
-				}
-			}
-		}
+		return de.read();
 	}
 
 	/**
-	 * Reads the bytes from the stream to a byte array.
+	 * Many .msg files hold string properties both as PT_STRING8 and as PT_UNICODE. Only the preferred variant is decoded then (see
+	 * {@link #setPreferUnicodeStrings(boolean)} and {@link #hasPreferredVariant(MsgDocument, Set)}).
 	 *
-	 * @param dstream The stream to be read from.
-	 * @return An array of bytes.
-	 * @throws IOException If the stream cannot be read properly.
+	 * @param entries The entries of a message, recipient or attachment directory.
+	 * @return The property tags of the (single- or multi-valued) string properties of the preferred variant among the entries.
 	 */
-	private byte[] getBytesFromStream(final InputStream dstream)
-			throws IOException {
-		final ByteArrayOutputStream baos = new ByteArrayOutputStream();
-		final byte[] buffer = new byte[1024];
-		int read;
-		while ((read = dstream.read(buffer)) > 0) {
-			baos.write(buffer, 0, read);
+	private Set<Integer> getPreferredStringTags(final List<MsgEntry> entries) {
+		final int preferredType = preferUnicodeStrings ? 0x1f : 0x1e;
+		final Set<Integer> preferredStringTags = new HashSet<>();
+		for (final MsgEntry entry : entries) {
+			if (entry instanceof MsgDocument) {
+				final OutlookFieldInformation info = analyzeDocumentEntry((MsgDocument) entry);
+				if (info.getMapiType() == preferredType || info.getMapiType() == (preferredType | MULTI_VALUED_FLAG)) {
+					preferredStringTags.add(info.getTag());
+				}
+			}
 		}
-		return baos.toByteArray();
+		return preferredStringTags;
 	}
 
-	private String bytesToHex(final byte[] bytes) {
-		final StringBuilder byteStr = new StringBuilder();
-		for (final byte aByte : bytes) {
-			byteStr.append(format("%02X", aByte & 0xff));
+	/**
+	 * @param de                  The document of a property.
+	 * @param preferredStringTags The result of {@link #getPreferredStringTags(List)} for the directory holding the document.
+	 * @return Whether the document is the other variant of a string property that is also present in the preferred variant, and so need not
+	 * be read at all.
+	 */
+	private boolean hasPreferredVariant(final MsgDocument de, final Set<Integer> preferredStringTags) {
+		final OutlookFieldInformation info = analyzeDocumentEntry(de);
+		// the Unicode variant of a type is the next one: 0x1e -> 0x1f and 0x101e -> 0x101f
+		if (preferUnicodeStrings) {
+			return (info.getMapiType() == 0x1e || info.getMapiType() == 0x101e) && preferredStringTags.contains(info.getTag() + 1);
 		}
-		return byteStr.toString();
+		return (info.getMapiType() == 0x1f || info.getMapiType() == 0x101f) && preferredStringTags.contains(info.getTag() - 1);
 	}
 
 	/**
-	 * Analyzes the {@link DocumentEntry} and returns
+	 * Analyzes the {@link MsgDocument} and returns
 	 * a {@link OutlookFieldInformation} object containing the
 	 * class (the field name, so to say) and type of
 	 * the entry.
 	 *
-	 * @param de The {@link DocumentEntry} that should be examined.
+	 * @param de The {@link MsgDocument} that should be examined.
 	 * @return A {@link OutlookFieldInformation} object containing class and type of the document entry or, if the entry is not an interesting field, an empty
 	 * {@link OutlookFieldInformation} object containing {@link OutlookFieldInformation#UNKNOWN} class and type.
 	 */
-	private OutlookFieldInformation analyzeDocumentEntry(final DocumentEntry de) {
+	private OutlookFieldInformation analyzeDocumentEntry(final MsgDocument de) {
 		final String name = de.getName();
+		final OutlookFieldInformation cachedInfo = FIELD_INFORMATION_BY_ENTRY_NAME.get(name);
+		if (cachedInfo != null) {
+			return cachedInfo;
+		}
+		final OutlookFieldInformation info = decodeEntryName(name);
+		// names in malformed files can be arbitrary, so once the cache is full, further names are decoded every time
+		if (FIELD_INFORMATION_BY_ENTRY_NAME.size() < FIELD_INFORMATION_CACHE_LIMIT) {
+			FIELD_INFORMATION_BY_ENTRY_NAME.putIfAbsent(name, info);
+		}
+		return info;
+	}
+
+	private static OutlookFieldInformation decodeEntryName(final String name) {
 		// we are only interested in document entries
 		// with names starting with __substg1.
 		LOGGER.trace("Document entry: {}", name);
 		if (name.startsWith(PROPERTY_STREAM_PREFIX)) {
-			final String clazz;
-			final String type;
-			final int mapiType;
-			try {
-				final String val = name.substring(PROPERTY_STREAM_PREFIX.length()).toLowerCase();
-				// the first 4 digits of the remainder
-				// defines the field class (or field name)
-				// and the last 4 digits indicate the
-				// data type.
-				clazz = val.substring(0, 4);
-				type = val.substring(4, 8);
-				LOGGER.trace("  Found document entry: class={}, type={}", clazz, type);
-				mapiType = Integer.parseInt(type, 16);
-			} catch (final RuntimeException re) {
-				LOGGER.info("Could not parse directory entry {}", name, re);
-				return new OutlookFieldInformation();
-			}
-			return new OutlookFieldInformation(clazz, mapiType);
+			if (name.length() > PROPERTY_STREAM_PREFIX.length() + 8) {
+				LOGGER.trace("Value of a multi-valued property, read along with the property: {}", name);
+				return UNKNOWN_FIELD_INFORMATION;
+			}
+			// the 8 hex digits after the prefix are the property tag:
+			// the first 4 digits define the field class (or field name)
+			// and the last 4 digits indicate the data type.
+			final long tag = parseHex(name, PROPERTY_STREAM_PREFIX.length(), PROPERTY_STREAM_PREFIX.length() + 8);
+			if (tag < 0) {
+				LOGGER.info("Could not parse directory entry {}", name);
+				return UNKNOWN_FIELD_INFORMATION;
+			}
+			return new OutlookFieldInformation((int) tag);
 		} else {
 			LOGGER.trace("Ignoring entry with name {}", name);
 		}
 		// we are not interested in the field
 		// and return an empty OutlookFieldInformation object
-		return new OutlookFieldInformation();
+		return UNKNOWN_FIELD_INFORMATION;
+	}
+
+	/**
+	 * @return The value of the hex digits between the given indices, or -1 if the string is too short or holds other characters there.
+	 */
+	private static long parseHex(final String s, final int beginIndex, final int endIndex) {
+		if (s.length() < endIndex) {
+			return -1;
+		}
+		long value = 0;
+		for (int i = beginIndex; i < endIndex; i++) {
+			final int digit = Character.digit(s.charAt(i), 16);
+			if (digit < 0) {
+				return -1;
+			}
+			value = value << 4 | digit;
+		}
+		return value;
 	}
 
 	/**
@@ -820,34 +1858,54 @@ public class OutlookMessageParser {
 	 * attached .msg file, which will be added
 	 * as a {@link OutlookMsgAttachment} object instead.
 	 *
-	 * @param dir The directory entry containing the attachment document entry and some other document entries describing the attachment (name, extension, mime
-	 *            type, ...)
-	 * @param msg The {@link OutlookMessage} object that this attachment should be added to.
+	 * @param dir            The directory entry containing the attachment document entry and some other document entries describing the attachment
+	 *                       (name, extension, mime type, ...)
+	 * @param msg            The {@link OutlookMessage} object that this attachment should be added to.
+	 * @param lazyContainer  The container of a message parsed by {@link #parseMsgLazily(Path)}, or {@code null}. Attached .msg files share
+	 *                       it with the message they are attached to.
+	 * @param string8Charset The charset of the 8-bit strings of the message, see {@link #getString8Charset(List)}.
 	 * @throws IOException Thrown if the attachment could not be parsed/read.
 	 */
-	private void parseAttachment(final DirectoryEntry dir, final OutlookMessage msg)
+	private void parseAttachment(final MsgDirectory dir, final OutlookMessage msg, @Nullable final LazyContainer lazyContainer,
+			@Nullable final Charset string8Charset)
 			throws IOException {
 
 		final OutlookFileAttachment attachment = new OutlookFileAttachment();
+		final List<MsgEntry> entries = dir.getEntries();
+		final Set<Integer> preferredStringTags = getPreferredStringTags(entries);
 
 		// iterate through all document entries
-		for (final Iterator<?> iter = dir.getEntries(); iter.hasNext(); ) {
-			final Entry entry = (Entry) iter.next();
-			if (entry.isDocumentEntry()) {
+		for (final MsgEntry entry : entries) {
+			if (entry instanceof MsgDocument) {
 
 				// the document entry may contain information about the attachment
-				final DocumentEntry de = (DocumentEntry) entry;
-				final OutlookMessageProperty msgProp = getMessagePropertyFromDocumentEntry(de);
+				final MsgDocument de = (MsgDocument) entry;
+				if (hasPreferredVariant(de, preferredStringTags)) {
+					continue;
+				}
+				final OutlookFieldInformation info = analyzeDocumentEntry(de);
+				final boolean isData = info.getTag() >>> 16 == 0x3701; //ATTACHMENT DATA
+				final OutlookMessageProperty msgProp;
+				if (isData ? parseOptions.includes(Part.ATTACHMENT_DATA) : parseOptions.includes(Part.ATTACHMENT_METADATA)) {
+					msgProp = getMessagePropertyFromDocumentEntry(dir, de, null, string8Charset);
+				} else if (isData && parseOptions.includes(Part.ATTACHMENT_METADATA)) {
+					// the size of the attachment is metadata, so it is kept without reading the data itself
+					msgProp = new OutlookMessageProperty(info.getTag(), new byte[0], de.getSize());
+				} else {
+					continue;
+				}
 				
 				// we provide the class and data of the document entry to the attachment.
 				// The attachment implementation has to know the semantics of the field names
 				attachment.setProperty(msgProp);
-			} else {
+			} else if (parseOptions.includes(Part.NESTED_MESSAGES)) {
 				// a directory within the attachment directory entry  means that a .msg file is attached at this point.
 				// we recursively parse this .msg file and add it as a OutlookMsgAttachment object to the current OutlookMessage object.
 				final OutlookMessage attachmentMsg = new OutlookMessage();
+				// attached messages have no named property mapping of their own, they use the one of the .msg file
+				attachmentMsg.setNamedProperties(msg.getNamedProperties());
 				msg.addAttachment(new OutlookMsgAttachment(attachmentMsg, attachment));
-				checkDirectoryEntry((DirectoryEntry) entry, attachmentMsg);
+				checkDirectoryEntry((MsgDirectory) entry, attachmentMsg, EMBEDDED_MESSAGE_PROPERTIES_HEADER_SIZE, lazyContainer);
 			}
 		}
 
@@ -868,4 +1926,45 @@ public class OutlookMessageParser {
 	public void setRtf2htmlConverter(final RtfToHtmlConverter rtf2htmlConverter) {
 		this.rtf2htmlConverter = rtf2htmlConverter;
 	}
+
+	/**
+	 * Setter for overriding the default {@link MsgContainerBackend}, which opens the .msg container for all {@code parseMsg} variants
+	 * (except {@link #parseMsg(MsgContainer)}). Defaults to {@link StandardMsgContainerBackend#COMPOUND_FILE_MAPPED}.
+	 *
+	 * @param containerBackend The backend to be used.
+	 */
+	public void setContainerBackend(@NotNull final MsgContainerBackend containerBackend) {
+		this.containerBackend = containerBackend;
+	}
+
+	/**
+	 * Setter for the size above which {@link #parseMsg(InputStream)} spools its input to a temporary file, which is then parsed like
+	 * {@link #parseMsg(Path)}. Streams up to this size stay on the in-memory path.
+	 *
+	 * @param tempFileThreshold The threshold in bytes, or a negative value to disable spooling (the default).
+	 */
+	public void setTempFileThreshold(final long tempFileThreshold) {
+		this.tempFileThreshold = tempFileThreshold;
+	}
+
+	/**
+	 * Setter for the parts of a .msg file that all {@code parseMsg} variants materialize. The documents of other parts are skipped without
+	 * being read. Defaults to {@link ParseOptions#all()}.
+	 *
+	 * @param parseOptions The parts to be materialized.
+	 */
+	public void setParseOptions(@NotNull final ParseOptions parseOptions) {
+		this.parseOptions = parseOptions;
+	}
+
+	/**
+	 * Setter for which variant of a string property is decoded when a .msg file holds it both as PT_UNICODE and as PT_STRING8 (as many do).
+	 * The other variant is skipped without being read. Defaults to {@code true}, as the Unicode variant does not depend on the codepage of
+	 * the message. Preferring the 8-bit variant can help with files whose writer filled the Unicode variant incorrectly.
+	 *
+	 * @param preferUnicodeStrings Whether to decode the PT_UNICODE rather than the PT_STRING8 variant.
+	 */
+	public void setPreferUnicodeStrings(final boolean preferUnicodeStrings) {
+		this.preferUnicodeStrings = preferUnicodeStrings;
+	}
 }
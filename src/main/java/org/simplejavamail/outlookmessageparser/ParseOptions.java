@@ -0,0 +1,132 @@
+package org.simplejavamail.outlookmessageparser;
+
+import org.jetbrains.annotations.NotNull;
+import org.simplejavamail.outlookmessageparser.model.OutlookMessage;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Declares which parts of a .msg file {@link OutlookMessageParser} materializes, see {@link OutlookMessageParser#setParseOptions(ParseOptions)}.
+ * Documents holding parts that are not included are not read at all. Immutable.
+ * <p>
+ * For example, a search indexer only needs {@code ParseOptions.only(Part.BODY_TEXT, Part.BODY_HTML)}, while a router that only needs the
+ * envelope can use {@code ParseOptions.only(Part.HEADERS)} (or {@link OutlookMessageParser#parseEnvelope(java.nio.file.Path)}).
+ * <p>
+ * The fixed-width properties (numbers, flags and times) of a message are read from a single stream that is always read, so including them
+ * costs no extra reads. They are still only put into the message for the parts that are included.
+ */
+public final class ParseOptions {
+
+	/**
+	 * The parts of a .msg file that can be included.
+	 */
+	public enum Part {
+		/**
+		 * The message class, message id, subject, sender, display to/cc/bcc, transport headers, S/MIME details and times of a message.
+		 */
+		HEADERS,
+		/**
+		 * The recipients of a message ({@link OutlookMessage#getRecipients()}).
+		 */
+		RECIPIENTS,
+		/**
+		 * The plain text body ({@link OutlookMessage#getBodyText()}).
+		 */
+		BODY_TEXT,
+		/**
+		 * The HTML body ({@link OutlookMessage#getBodyHTML()}).
+		 */
+		BODY_HTML,
+		/**
+		 * The decompressed RTF body ({@link OutlookMessage#getBodyRTF()}).
+		 */
+		BODY_RTF,
+		/**
+		 * The HTML converted from the RTF body ({@link OutlookMessage#getConvertedBodyHTML()}), which requires reading the RTF body.
+		 */
+		CONVERTED_HTML,
+		/**
+		 * The names, mime tags, content ids and sizes of file attachments.
+		 */
+		ATTACHMENT_METADATA,
+		/**
+		 * The content of file attachments. Without it, file attachments have empty data (but still their actual size).
+		 */
+		ATTACHMENT_DATA,
+		/**
+		 * Attached .msg files, which are parsed with the same options.
+		 */
+		NESTED_MESSAGES,
+		/**
+		 * All other properties, which are only available through {@link OutlookMessage#getPropertyValue(Integer)} and the like.
+		 */
+		PROPERTIES
+	}
+
+	private static final ParseOptions ALL = new ParseOptions(EnumSet.allOf(Part.class));
+
+	private final Set<Part> parts;
+
+	private ParseOptions(final EnumSet<Part> parts) {
+		this.parts = Collections.unmodifiableSet(parts);
+	}
+
+	/**
+	 * @return Options that include all parts, which is what {@link OutlookMessageParser} uses by default.
+	 */
+	@NotNull
+	public static ParseOptions all() {
+		return ALL;
+	}
+
+	/**
+	 * @return Options that include only the given parts.
+	 */
+	@NotNull
+	public static ParseOptions only(@NotNull final Part first, @NotNull final Part... rest) {
+		return new ParseOptions(EnumSet.of(first, rest));
+	}
+
+	/**
+	 * @return Options that include all but the given parts.
+	 */
+	@NotNull
+	public static ParseOptions allExcept(@NotNull final Part first, @NotNull final Part... rest) {
+		return new ParseOptions(EnumSet.complementOf(EnumSet.of(first, rest)));
+	}
+
+	public boolean includes(@NotNull final Part part) {
+		return parts.contains(part);
+	}
+
+	/**
+	 * Bean getter for {@link #parts}.
+	 */
+	@NotNull
+	public Set<Part> getParts() {
+		return parts;
+	}
+
+	/**
+	 * @return Whether the property with the given id of a message (not of a recipient or attachment) belongs to an included part.
+	 */
+	boolean includesMessageProperty(final OutlookMessage msg, final int propertyId) {
+		switch (propertyId) {
+			case 0x1000: //BODY
+				return includes(Part.BODY_TEXT);
+			case 0x1013: //HTML
+				return includes(Part.BODY_HTML);
+			case 0x1009: //RTF COMPRESSED
+				return includes(Part.BODY_RTF) || includes(Part.CONVERTED_HTML);
+			default:
+				return includes(msg.hasSpecialAttribute(propertyId) ? Part.HEADERS : Part.PROPERTIES);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "ParseOptions" + parts;
+	}
+}
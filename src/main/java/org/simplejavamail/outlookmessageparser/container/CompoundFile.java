@@ -0,0 +1,723 @@
+package org.simplejavamail.outlookmessageparser.container;
+
+import org.apache.poi.poifs.nio.CleanerUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Read-only reader for the Compound File Binary format ([MS-CFB]) that .msg files are stored in.
+ * <p>
+ * Unlike POI's {@code POIFSFileSystem}, nothing beyond the header and the root entry is read up front: allocation table and directory sectors
+ * are read the first time a lookup needs them, and directory entries are only decoded when the directory they are in is listed (or, for
+ * {@link MsgDirectory#getEntry(String)}, when they are on the search path through the directory's sibling tree). Documents are read straight into
+ * an array of their exact size.
+ * <p>
+ * Instances are not thread-safe, as the sector caches are filled lazily.
+ */
+public final class CompoundFile implements MsgContainer {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(CompoundFile.class);
+
+	private static final long SIGNATURE = 0xE11AB1A1E011CFD0L;
+	private static final int HEADER_SIZE = 512;
+	private static final int HEADER_DIFAT_OFFSET = 0x4C;
+	private static final int HEADER_DIFAT_ENTRIES = 109;
+	private static final int DIRECTORY_ENTRY_SIZE = 128;
+	private static final int MAX_NAME_LENGTH = 31;
+
+	private static final int END_OF_CHAIN = 0xFFFFFFFE;
+	private static final int NO_STREAM = 0xFFFFFFFF;
+
+	private static final int TYPE_STORAGE = 1;
+	private static final int TYPE_STREAM = 2;
+	private static final int TYPE_ROOT = 5;
+
+	private final Source source;
+	private final int sectorShift;
+	private final int sectorSize;
+	private final int miniSectorShift;
+	private final int miniStreamCutoff;
+	private final long sectorCount;
+	private final int firstMiniFatSector;
+
+	private final int fatSectorCount;
+
+	/**
+	 * Locations of the FAT sectors, resolved from the DIFAT as far as lookups have needed them so far. The first 109 are stored in the header,
+	 * the others in a chain of DIFAT sectors starting at {@link #nextDifatSector}.
+	 */
+	private int[] fatSectorLocations;
+	private int resolvedFatSectorLocations;
+	private int nextDifatSector;
+	private int remainingDifatSectors;
+	private ByteBuffer[] fatSectors = new ByteBuffer[0];
+
+	private final List<ByteBuffer> directorySectors = new ArrayList<>();
+	private int nextDirectorySector;
+
+	private int[] miniFatSectorLocations;
+	private ByteBuffer[] miniFatSectors;
+	private int[] miniStreamSectorLocations;
+	private final int miniStreamStart;
+
+	private final StorageEntry root;
+
+	private boolean closed;
+
+	private CompoundFile(final Source source)
+			throws IOException {
+		this.source = source;
+		if (source.size() < HEADER_SIZE) {
+			throw new IOException("Not a compound file: too small for a header");
+		}
+		final ByteBuffer header = source.view(0, HEADER_SIZE);
+		if (header.getLong(0) != SIGNATURE) {
+			throw new IOException("Not a compound file: invalid header signature");
+		}
+		if ((header.getShort(0x1C) & 0xFFFF) != 0xFFFE) {
+			throw new IOException("Invalid compound file byte order mark");
+		}
+		sectorShift = header.getShort(0x1E);
+		if (sectorShift != 9 && sectorShift != 12) {
+			throw new IOException("Unsupported compound file sector shift " + sectorShift);
+		}
+		sectorSize = 1 << sectorShift;
+		miniSectorShift = header.getShort(0x20);
+		if (miniSectorShift != 6) {
+			throw new IOException("Unsupported compound file mini sector shift " + miniSectorShift);
+		}
+		sectorCount = (source.size() + sectorSize - 1) / sectorSize - 1;
+		fatSectorCount = header.getInt(0x2C);
+		if (fatSectorCount < 0 || fatSectorCount > sectorCount) {
+			throw new IOException("Invalid compound file FAT sector count " + fatSectorCount);
+		}
+		nextDirectorySector = header.getInt(0x30);
+		miniStreamCutoff = header.getInt(0x38);
+		firstMiniFatSector = header.getInt(0x3C);
+
+		resolvedFatSectorLocations = Math.min(fatSectorCount, HEADER_DIFAT_ENTRIES);
+		fatSectorLocations = new int[resolvedFatSectorLocations];
+		for (int i = 0; i < resolvedFatSectorLocations; i++) {
+			fatSectorLocations[i] = header.getInt(HEADER_DIFAT_OFFSET + i * Integer.BYTES);
+		}
+		nextDifatSector = header.getInt(0x44);
+		remainingDifatSectors = header.getInt(0x48);
+
+		final ByteBuffer rootSector = directorySector(0);
+		if (rootSector.get(0x42) != TYPE_ROOT) {
+			throw new IOException("Invalid compound file: first directory entry is not the root");
+		}
+		root = new StorageEntry(readName(rootSector, 0), NO_STREAM, NO_STREAM, rootSector.getInt(0x4C));
+		miniStreamStart = rootSector.getInt(0x74);
+	}
+
+	/**
+	 * @param buffer Bytes from the start of a file, from the buffer's position on. The position is left untouched.
+	 * @return Whether the bytes start with the compound file signature.
+	 */
+	public static boolean hasSignature(@NotNull final ByteBuffer buffer) {
+		return buffer.remaining() >= Long.BYTES && buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN).getLong(buffer.position()) == SIGNATURE;
+	}
+
+	/**
+	 * Opens a compound file by memory-mapping it read-only. Files too large to map are read by position instead. The mapping is released on
+	 * {@link #close()} (where the JVM supports unmapping, as POI does for its own mapped files), so the file can be deleted or replaced
+	 * afterwards, also on Windows. Entries can no longer be read once the container is closed.
+	 *
+	 * @param path The compound file.
+	 * @return The opened container.
+	 * @throws IOException Thrown if the file could not be read or is not a compound file.
+	 */
+	@NotNull
+	public static CompoundFile open(@NotNull final Path path)
+			throws IOException {
+		final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+		if (channel.size() > Integer.MAX_VALUE) {
+			return open(channel);
+		}
+		final BufferSource source;
+		try (FileChannel managedChannel = channel) {
+			source = new BufferSource(managedChannel.map(FileChannel.MapMode.READ_ONLY, 0, managedChannel.size()), true);
+		}
+		try {
+			return new CompoundFile(source);
+		} catch (IOException | RuntimeException e) {
+			source.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Opens a compound file from a channel, which is read by absolute position as sectors are needed. The container takes ownership of the
+	 * channel and closes it on {@link #close()}.
+	 *
+	 * @param channel The compound file as a channel.
+	 * @return The opened container.
+	 * @throws IOException Thrown if the channel could not be read or does not contain a compound file.
+	 */
+	@NotNull
+	public static CompoundFile open(@NotNull final SeekableByteChannel channel)
+			throws IOException {
+		final ChannelSource source = new ChannelSource(channel);
+		try {
+			return new CompoundFile(source);
+		} catch (IOException | RuntimeException e) {
+			source.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Opens a compound file held in a (heap or direct) buffer, from its position up to its limit. Sectors are read from the buffer in place,
+	 * and the buffer's position and limit are left untouched.
+	 *
+	 * @param buffer The compound file as a buffer.
+	 * @return The opened container.
+	 * @throws IOException Thrown if the buffer does not contain a compound file.
+	 */
+	@NotNull
+	public static CompoundFile open(@NotNull final ByteBuffer buffer)
+			throws IOException {
+		return new CompoundFile(new BufferSource(buffer, false));
+	}
+
+	@NotNull
+	@Override
+	public MsgDirectory getRoot() {
+		return root;
+	}
+
+	@Override
+	public void close()
+			throws IOException {
+		if (!closed) {
+			closed = true;
+			source.close();
+		}
+	}
+
+	/**
+	 * Guards every read, as cached sectors of a mapped file point into memory that is no longer mapped after {@link #close()}.
+	 */
+	private void ensureOpen()
+			throws IOException {
+		if (closed) {
+			throw new IOException("Compound file has already been closed");
+		}
+	}
+
+	/**
+	 * Resolves the location of a FAT sector, reading DIFAT sectors up to the one listing it.
+	 */
+	private int fatSectorLocation(final int fatSectorIndex)
+			throws IOException {
+		final int entriesPerDifatSector = sectorSize / Integer.BYTES - 1;
+		while (fatSectorIndex >= resolvedFatSectorLocations) {
+			if (remainingDifatSectors-- <= 0) {
+				throw new IOException("Compound file DIFAT ends before FAT sector " + fatSectorIndex);
+			}
+			final ByteBuffer difat = source.view(sectorPosition(nextDifatSector), sectorSize);
+			final int entries = Math.min(entriesPerDifatSector, fatSectorCount - resolvedFatSectorLocations);
+			fatSectorLocations = Arrays.copyOf(fatSectorLocations, resolvedFatSectorLocations + entries);
+			for (int j = 0; j < entries; j++) {
+				fatSectorLocations[resolvedFatSectorLocations++] = difat.getInt(j * Integer.BYTES);
+			}
+			nextDifatSector = difat.getInt(entriesPerDifatSector * Integer.BYTES);
+		}
+		return fatSectorLocations[fatSectorIndex];
+	}
+
+	private long sectorPosition(final int sector)
+			throws IOException {
+		if (sector < 0 || sector >= sectorCount) {
+			throw new IOException("Invalid compound file sector " + sector);
+		}
+		return (long) (sector + 1) << sectorShift;
+	}
+
+	private int nextSector(final int sector)
+			throws IOException {
+		final int fatSectorIndex = sector >>> (sectorShift - 2);
+		if (sector < 0 || fatSectorIndex >= fatSectorCount) {
+			throw new IOException("Invalid compound file sector " + sector);
+		}
+		if (fatSectorIndex >= fatSectors.length) {
+			fatSectors = Arrays.copyOf(fatSectors, Math.min(fatSectorCount, Math.max(fatSectorIndex + 1, fatSectors.length * 2)));
+		}
+		if (fatSectors[fatSectorIndex] == null) {
+			fatSectors[fatSectorIndex] = source.view(sectorPosition(fatSectorLocation(fatSectorIndex)), sectorSize);
+		}
+		return fatSectors[fatSectorIndex].getInt((sector & (sectorSize / Integer.BYTES - 1)) * Integer.BYTES);
+	}
+
+	private int nextMiniSector(final int miniSector)
+			throws IOException {
+		if (miniFatSectorLocations == null) {
+			miniFatSectorLocations = chain(firstMiniFatSector);
+			miniFatSectors = new ByteBuffer[miniFatSectorLocations.length];
+		}
+		final int miniFatSectorIndex = miniSector >>> (sectorShift - 2);
+		if (miniSector < 0 || miniFatSectorIndex >= miniFatSectors.length) {
+			throw new IOException("Invalid compound file mini sector " + miniSector);
+		}
+		if (miniFatSectors[miniFatSectorIndex] == null) {
+			miniFatSectors[miniFatSectorIndex] = source.view(sectorPosition(miniFatSectorLocations[miniFatSectorIndex]), sectorSize);
+		}
+		return miniFatSectors[miniFatSectorIndex].getInt((miniSector & (sectorSize / Integer.BYTES - 1)) * Integer.BYTES);
+	}
+
+	private long miniSectorPosition(final int miniSector)
+			throws IOException {
+		if (miniStreamSectorLocations == null) {
+			miniStreamSectorLocations = chain(miniStreamStart);
+		}
+		final long miniStreamOffset = (long) miniSector << miniSectorShift;
+		final long index = miniStreamOffset >> sectorShift;
+		if (miniSector < 0 || index >= miniStreamSectorLocations.length) {
+			throw new IOException("Invalid compound file mini sector " + miniSector);
+		}
+		return sectorPosition(miniStreamSectorLocations[(int) index]) + (miniStreamOffset & (sectorSize - 1));
+	}
+
+	/**
+	 * @return All sectors of the chain starting at the given sector.
+	 */
+	private int[] chain(final int startSector)
+			throws IOException {
+		int[] sectors = new int[8];
+		int count = 0;
+		for (int sector = startSector; sector != END_OF_CHAIN; sector = nextSector(sector)) {
+			if (count > sectorCount) {
+				throw new IOException("Cyclic compound file sector chain starting at " + startSector);
+			}
+			if (count == sectors.length) {
+				sectors = Arrays.copyOf(sectors, count * 2);
+			}
+			sectors[count++] = sector;
+		}
+		return Arrays.copyOf(sectors, count);
+	}
+
+	private ByteBuffer directorySector(final int index)
+			throws IOException {
+		while (directorySectors.size() <= index) {
+			if (nextDirectorySector == END_OF_CHAIN || directorySectors.size() > sectorCount) {
+				throw new IOException("Compound file directory entry out of range");
+			}
+			directorySectors.add(source.view(sectorPosition(nextDirectorySector), sectorSize));
+			nextDirectorySector = nextSector(nextDirectorySector);
+		}
+		return directorySectors.get(index);
+	}
+
+	/**
+	 * @return The decoded directory entry, or {@code null} for unused or unknown entries.
+	 */
+	@Nullable
+	private Node readNode(final int id)
+			throws IOException {
+		final int entriesPerSector = sectorSize / DIRECTORY_ENTRY_SIZE;
+		final ByteBuffer sector = directorySector(id / entriesPerSector);
+		final int offset = (id % entriesPerSector) * DIRECTORY_ENTRY_SIZE;
+		final byte type = sector.get(offset + 0x42);
+		if (type != TYPE_STORAGE && type != TYPE_STREAM && type != TYPE_ROOT) {
+			return null;
+		}
+		final String name = readName(sector, offset);
+		final int leftSibling = sector.getInt(offset + 0x44);
+		final int rightSibling = sector.getInt(offset + 0x48);
+		if (type == TYPE_STREAM) {
+			// only the low 32 bits are meaningful in version 3 files, and .msg documents never exceed that
+			final int size = sector.getInt(offset + 0x78);
+			if (size < 0) {
+				throw new IOException("Unsupported compound file stream size for entry " + name);
+			}
+			return new StreamEntry(name, leftSibling, rightSibling, sector.getInt(offset + 0x74), size);
+		}
+		return new StorageEntry(name, leftSibling, rightSibling, sector.getInt(offset + 0x4C));
+	}
+
+	private static String readName(final ByteBuffer sector, final int offset) {
+		final int length = Math.min((sector.getShort(offset + 0x40) & 0xFFFF) / Character.BYTES - 1, MAX_NAME_LENGTH);
+		if (length < 1) {
+			return "";
+		}
+		final char[] name = new char[length];
+		for (int i = 0; i < length; i++) {
+			name[i] = sector.getChar(offset + i * Character.BYTES);
+		}
+		return new String(name);
+	}
+
+	private byte[] readStream(final int startSector, final int size)
+			throws IOException {
+		final byte[] data = new byte[size];
+		readStream(startSector, size, data, size);
+		return data;
+	}
+
+	/**
+	 * Fills the array with the first {@code length} bytes of a stream of the given size.
+	 */
+	private void readStream(final int startSector, final int size, final byte[] data, final int length)
+			throws IOException {
+		if (size < miniStreamCutoff) {
+			readMiniSectors(startSector, data, length);
+		} else {
+			readSectors(startSector, data, length);
+		}
+	}
+
+	/**
+	 * Fills the start of the array from the sector chain, reading runs of consecutive sectors at once.
+	 */
+	private void readSectors(final int startSector, final byte[] data, final int length)
+			throws IOException {
+		int sector = startSector;
+		int offset = 0;
+		while (offset < length) {
+			final long runPosition = sectorPosition(sector);
+			int runLength = Math.min(sectorSize, length - offset);
+			int previousSector = sector;
+			sector = offset + runLength < length ? nextSector(sector) : END_OF_CHAIN;
+			while (sector == previousSector + 1 && offset + runLength < length) {
+				runLength += Math.min(sectorSize, length - offset - runLength);
+				previousSector = sector;
+				sector = offset + runLength < length ? nextSector(sector) : END_OF_CHAIN;
+			}
+			source.read(runPosition, data, offset, runLength);
+			offset += runLength;
+		}
+	}
+
+	/**
+	 * Fills the start of the array from the mini sector chain, reading runs of mini sectors that are adjacent in the file at once.
+	 */
+	private void readMiniSectors(final int startMiniSector, final byte[] data, final int length)
+			throws IOException {
+		final int miniSectorSize = 1 << miniSectorShift;
+		int miniSector = startMiniSector;
+		int offset = 0;
+		while (offset < length) {
+			final long runPosition = miniSectorPosition(miniSector);
+			int runLength = Math.min(miniSectorSize, length - offset);
+			while (offset + runLength < length) {
+				miniSector = nextMiniSector(miniSector);
+				if (miniSectorPosition(miniSector) != runPosition + runLength) {
+					break;
+				}
+				runLength += Math.min(miniSectorSize, length - offset - runLength);
+			}
+			source.read(runPosition, data, offset, runLength);
+			offset += runLength;
+		}
+	}
+
+	/**
+	 * A decoded directory entry, holding the links to its siblings in the red-black tree of its parent storage.
+	 */
+	private abstract static class Node implements MsgEntry {
+		private final String name;
+		private final int leftSibling;
+		private final int rightSibling;
+
+		private Node(String name, int leftSibling, int rightSibling) {
+			this.name = name;
+			this.leftSibling = leftSibling;
+			this.rightSibling = rightSibling;
+		}
+
+		@NotNull
+		@Override
+		public String getName() {
+			return name;
+		}
+
+		@Override
+		public String toString() {
+			return name;
+		}
+	}
+
+	private final class StorageEntry extends Node implements MsgDirectory {
+		private final int child;
+		private List<MsgEntry> entries;
+
+		private StorageEntry(String name, int leftSibling, int rightSibling, int child) {
+			super(name, leftSibling, rightSibling);
+			this.child = child;
+		}
+
+		/**
+		 * Walks the sibling tree below this storage in the same order POI lists directory entries in (pre-order, right subtree first), so
+		 * properties that occur more than once are resolved the same way regardless of the container implementation.
+		 */
+		@NotNull
+		@Override
+		public List<MsgEntry> getEntries()
+				throws IOException {
+			if (entries == null) {
+				ensureOpen();
+				if (child == NO_STREAM) {
+					entries = Collections.emptyList();
+				} else {
+					final List<MsgEntry> children = new ArrayList<>();
+					final BitSet visited = new BitSet();
+					int[] pending = new int[16];
+					int pendingCount = 0;
+					pending[pendingCount++] = child;
+					while (pendingCount > 0) {
+						final int id = pending[--pendingCount];
+						if (id < 0 || visited.get(id)) {
+							throw new IOException("Corrupt compound file directory tree below " + getName());
+						}
+						visited.set(id);
+						final Node node = readNode(id);
+						if (node != null) {
+							children.add(node);
+							if (pendingCount + 2 > pending.length) {
+								pending = Arrays.copyOf(pending, pending.length * 2);
+							}
+							if (node.leftSibling != NO_STREAM) {
+								pending[pendingCount++] = node.leftSibling;
+							}
+							if (node.rightSibling != NO_STREAM) {
+								pending[pendingCount++] = node.rightSibling;
+							}
+						}
+					}
+					entries = Collections.unmodifiableList(children);
+				}
+			}
+			return entries;
+		}
+
+		/**
+		 * Searches the sibling tree below this storage, which compound files are required to keep ordered by
+		 * {@link #compareNames(String, String)}, so only the entries on the search path are decoded. Not all writers keep the tree ordered
+		 * correctly, so if the search misses, the entry is looked up in the complete {@link #getEntries()} (as POI does) before giving up.
+		 */
+		@Nullable
+		@Override
+		public MsgEntry getEntry(@NotNull final String name)
+				throws IOException {
+			if (entries != null) {
+				return MsgDirectory.super.getEntry(name);
+			}
+			ensureOpen();
+			final BitSet visited = new BitSet();
+			int id = child;
+			while (id != NO_STREAM) {
+				if (id < 0 || visited.get(id)) {
+					throw new IOException("Corrupt compound file directory tree below " + getName());
+				}
+				visited.set(id);
+				final Node node = readNode(id);
+				if (node == null) {
+					break;
+				}
+				final int comparison = compareNames(name, node.getName());
+				if (comparison == 0) {
+					return node;
+				}
+				id = comparison < 0 ? node.leftSibling : node.rightSibling;
+			}
+			return MsgDirectory.super.getEntry(name);
+		}
+	}
+
+	/**
+	 * The order of entries in a sibling tree: shorter names first, then by upper case characters.
+	 */
+	private static int compareNames(final String name, final String otherName) {
+		if (name.length() != otherName.length()) {
+			return name.length() - otherName.length();
+		}
+		for (int i = 0; i < name.length(); i++) {
+			final int difference = Character.toUpperCase(name.charAt(i)) - Character.toUpperCase(otherName.charAt(i));
+			if (difference != 0) {
+				return difference;
+			}
+		}
+		return 0;
+	}
+
+	private final class StreamEntry extends Node implements MsgDocument {
+		private final int startSector;
+		private final int size;
+
+		private StreamEntry(String name, int leftSibling, int rightSibling, int startSector, int size) {
+			super(name, leftSibling, rightSibling);
+			this.startSector = startSector;
+			this.size = size;
+		}
+
+		@Override
+		public int getSize() {
+			return size;
+		}
+
+		@NotNull
+		@Override
+		public byte[] read()
+				throws IOException {
+			ensureOpen();
+			return readStream(startSector, size);
+		}
+
+		@Override
+		public int read(@NotNull final byte[] destination)
+				throws IOException {
+			ensureOpen();
+			final int length = Math.min(size, destination.length);
+			readStream(startSector, size, destination, length);
+			return length;
+		}
+	}
+
+	/**
+	 * Random access to the bytes of a compound file. Reads beyond the end of the source are padded with zeros, as the last sector of a file is
+	 * not always stored in full.
+	 */
+	private interface Source extends Closeable {
+		long size();
+
+		/**
+		 * @return A little-endian buffer with the given range, which may share its content with the source.
+		 */
+		ByteBuffer view(long position, int length)
+				throws IOException;
+
+		void read(long position, byte[] destination, int offset, int length)
+				throws IOException;
+	}
+
+	private static final class BufferSource implements Source {
+		private final ByteBuffer buffer;
+		/**
+		 * The buffer this source mapped itself and unmaps on {@link #close()}, or {@code null} for a buffer owned by the caller.
+		 */
+		private final ByteBuffer mappedBuffer;
+
+		private BufferSource(ByteBuffer buffer, boolean unmapOnClose) {
+			this.buffer = buffer.slice();
+			this.mappedBuffer = unmapOnClose ? buffer : null;
+		}
+
+		@Override
+		public long size() {
+			return buffer.limit();
+		}
+
+		@Override
+		public ByteBuffer view(long position, int length) {
+			if (position + length > buffer.limit()) {
+				final byte[] padded = new byte[length];
+				read(position, padded, 0, length);
+				return ByteBuffer.wrap(padded).order(ByteOrder.LITTLE_ENDIAN);
+			}
+			final ByteBuffer view = buffer.duplicate();
+			((Buffer) view).position((int) position);
+			((Buffer) view).limit((int) position + length);
+			return view.slice().order(ByteOrder.LITTLE_ENDIAN);
+		}
+
+		@Override
+		public void read(long position, byte[] destination, int offset, int length) {
+			final int available = (int) Math.max(0, Math.min(length, buffer.limit() - position));
+			if (available > 0) {
+				final ByteBuffer view = buffer.duplicate();
+				((Buffer) view).position((int) position);
+				view.get(destination, offset, available);
+			}
+			Arrays.fill(destination, offset + available, offset + length, (byte) 0);
+		}
+
+		@Override
+		public void close() {
+			if (mappedBuffer == null) {
+				return;
+			}
+			if (CleanerUtil.UNMAP_SUPPORTED) {
+				try {
+					CleanerUtil.getCleaner().freeBuffer(mappedBuffer);
+				} catch (IOException e) {
+					LOGGER.warn("Failed to unmap the buffer, it stays mapped until it is garbage collected", e);
+				}
+			} else {
+				LOGGER.debug("Cannot unmap the buffer, it stays mapped until it is garbage collected: {}", CleanerUtil.UNMAP_NOT_SUPPORTED_REASON);
+			}
+		}
+	}
+
+	private static final class ChannelSource implements Source {
+		private final SeekableByteChannel channel;
+		private final long size;
+
+		private ChannelSource(SeekableByteChannel channel)
+				throws IOException {
+			this.channel = channel;
+			this.size = channel.size();
+		}
+
+		@Override
+		public long size() {
+			return size;
+		}
+
+		@Override
+		public ByteBuffer view(long position, int length)
+				throws IOException {
+			final byte[] bytes = new byte[length];
+			read(position, bytes, 0, length);
+			return ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+		}
+
+		@Override
+		public void read(long position, byte[] destination, int offset, int length)
+				throws IOException {
+			final ByteBuffer target = ByteBuffer.wrap(destination, offset, length);
+			if (channel instanceof FileChannel) {
+				long readPosition = position;
+				while (target.hasRemaining()) {
+					final int read = ((FileChannel) channel).read(target, readPosition);
+					if (read < 0) {
+						break;
+					}
+					readPosition += read;
+				}
+			} else {
+				synchronized (channel) {
+					channel.position(position);
+					while (target.hasRemaining() && channel.read(target) >= 0) {
+						// keep reading until the range is complete or the channel is exhausted
+					}
+				}
+			}
+			Arrays.fill(destination, target.position(), offset + length, (byte) 0);
+		}
+
+		@Override
+		public void close()
+				throws IOException {
+			channel.close();
+		}
+	}
+}
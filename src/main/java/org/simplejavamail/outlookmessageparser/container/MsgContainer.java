@@ -0,0 +1,18 @@
+package org.simplejavamail.outlookmessageparser.container;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+
+/**
+ * An opened .msg container (an OLE2 compound file), which gives access to its entries through {@link #getRoot()}. Entries may read from the
+ * underlying source on demand, so they are only usable as long as the container has not been closed.
+ */
+public interface MsgContainer extends Closeable {
+
+	/**
+	 * @return The root directory of the container.
+	 */
+	@NotNull
+	MsgDirectory getRoot();
+}
@@ -0,0 +1,44 @@
+package org.simplejavamail.outlookmessageparser.container;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Path;
+
+/**
+ * Opens .msg sources as a {@link MsgContainer}, which is what the parser walks. See {@link StandardMsgContainerBackend} for the built-in
+ * implementations; custom implementations can be plugged in through
+ * {@link org.simplejavamail.outlookmessageparser.OutlookMessageParser#setContainerBackend(MsgContainerBackend)}.
+ */
+public interface MsgContainerBackend {
+
+	/**
+	 * @param path The .msg file.
+	 * @return The opened container, owned by the caller.
+	 * @throws IOException Thrown if the file could not be read or is not a compound file.
+	 */
+	@NotNull
+	MsgContainer open(@NotNull Path path)
+			throws IOException;
+
+	/**
+	 * @param channel The .msg file as a channel. The returned container takes ownership of the channel and closes it when it is closed itself
+	 *                (or right away, if the container does not need it after opening).
+	 * @return The opened container, owned by the caller.
+	 * @throws IOException Thrown if the channel could not be read or does not contain a compound file.
+	 */
+	@NotNull
+	MsgContainer open(@NotNull SeekableByteChannel channel)
+			throws IOException;
+
+	/**
+	 * @param buffer The .msg file as a buffer, from its position up to its limit. Its position and limit are left untouched.
+	 * @return The opened container, owned by the caller.
+	 * @throws IOException Thrown if the buffer does not contain a compound file.
+	 */
+	@NotNull
+	MsgContainer open(@NotNull ByteBuffer buffer)
+			throws IOException;
+}
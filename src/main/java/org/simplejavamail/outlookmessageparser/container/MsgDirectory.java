@@ -0,0 +1,41 @@
+package org.simplejavamail.outlookmessageparser.container;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * A directory in a .msg container, such as the root of the message, a recipient ({@code __recip_version1.0_*}) or an attachment
+ * ({@code __attach_version1.0_*}).
+ */
+public interface MsgDirectory extends MsgEntry {
+
+	/**
+	 * @return The entries directly below this directory, in container order.
+	 * @throws IOException Thrown if the directory could not be read.
+	 */
+	@NotNull
+	List<MsgEntry> getEntries()
+			throws IOException;
+
+	/**
+	 * Looks up a single entry directly below this directory. Names are compared case-insensitively, like compound files do. Implementations may
+	 * find the entry without listing the complete directory.
+	 *
+	 * @param name The name of the entry.
+	 * @return The entry with the given name, or {@code null} if there is none.
+	 * @throws IOException Thrown if the directory could not be read.
+	 */
+	@Nullable
+	default MsgEntry getEntry(@NotNull final String name)
+			throws IOException {
+		for (final MsgEntry entry : getEntries()) {
+			if (entry.getName().equalsIgnoreCase(name)) {
+				return entry;
+			}
+		}
+		return null;
+	}
+}
@@ -0,0 +1,36 @@
+package org.simplejavamail.outlookmessageparser.container;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+
+/**
+ * A document in a .msg container, holding the data of a single property ({@code __substg1.0_*}) or a fixed-length property table
+ * ({@code __properties_version1.0}).
+ */
+public interface MsgDocument extends MsgEntry {
+
+	/**
+	 * @return The size of the document in bytes, known without reading the document itself.
+	 */
+	int getSize();
+
+	/**
+	 * @return The complete contents of the document.
+	 * @throws IOException Thrown if the document could not be read.
+	 */
+	@NotNull
+	byte[] read()
+			throws IOException;
+
+	/**
+	 * Reads the start of the document into the given array, so small documents can be read into a reused buffer. Implementations read only
+	 * the requested bytes instead of the complete document.
+	 *
+	 * @param destination The array to fill from its start.
+	 * @return The number of bytes read, which is the smaller of the array length and {@link #getSize()}.
+	 * @throws IOException Thrown if the document could not be read.
+	 */
+	int read(@NotNull byte[] destination)
+			throws IOException;
+}
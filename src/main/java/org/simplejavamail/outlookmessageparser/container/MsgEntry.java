@@ -0,0 +1,16 @@
+package org.simplejavamail.outlookmessageparser.container;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A named node in a .msg container, which is either a {@link MsgDirectory} (a storage in compound file terms) or a {@link MsgDocument} (a
+ * stream).
+ */
+public interface MsgEntry {
+
+	/**
+	 * @return The name of the entry within its parent directory, e.g. {@code __substg1.0_0037001F}.
+	 */
+	@NotNull
+	String getName();
+}
@@ -0,0 +1,133 @@
+package org.simplejavamail.outlookmessageparser.container;
+
+import org.apache.poi.poifs.filesystem.DirectoryEntry;
+import org.apache.poi.poifs.filesystem.DocumentEntry;
+import org.apache.poi.poifs.filesystem.DocumentInputStream;
+import org.apache.poi.poifs.filesystem.Entry;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * {@link MsgContainer} backed by POI's {@link POIFSFileSystem}, which reads the complete property tree and block allocation tables when it is
+ * opened.
+ */
+public final class PoiMsgContainer implements MsgContainer {
+
+	private final POIFSFileSystem poifs;
+
+	/**
+	 * Source the file system was opened from, if POI does not close it by itself.
+	 */
+	@Nullable
+	private final Closeable source;
+
+	public PoiMsgContainer(@NotNull final POIFSFileSystem poifs) {
+		this(poifs, null);
+	}
+
+	PoiMsgContainer(@NotNull final POIFSFileSystem poifs, @Nullable final Closeable source) {
+		this.poifs = poifs;
+		this.source = source;
+	}
+
+	@NotNull
+	@Override
+	public MsgDirectory getRoot() {
+		return wrap(poifs.getRoot());
+	}
+
+	@Override
+	public void close()
+			throws IOException {
+		try {
+			poifs.close();
+		} finally {
+			if (source != null) {
+				source.close();
+			}
+		}
+	}
+
+	/**
+	 * @param dir A directory of an opened {@link POIFSFileSystem}.
+	 * @return A {@link MsgDirectory} view on the given directory.
+	 */
+	@NotNull
+	public static MsgDirectory wrap(@NotNull final DirectoryEntry dir) {
+		return new PoiDirectory(dir);
+	}
+
+	private static final class PoiDirectory implements MsgDirectory {
+		private final DirectoryEntry dir;
+
+		private PoiDirectory(DirectoryEntry dir) {
+			this.dir = dir;
+		}
+
+		@NotNull
+		@Override
+		public String getName() {
+			return dir.getName();
+		}
+
+		@NotNull
+		@Override
+		public List<MsgEntry> getEntries() {
+			final List<MsgEntry> entries = new ArrayList<>();
+			for (final Iterator<Entry> iter = dir.getEntries(); iter.hasNext(); ) {
+				final Entry entry = iter.next();
+				if (entry.isDirectoryEntry()) {
+					entries.add(new PoiDirectory((DirectoryEntry) entry));
+				} else if (entry.isDocumentEntry()) {
+					entries.add(new PoiDocument((DocumentEntry) entry));
+				}
+			}
+			return entries;
+		}
+	}
+
+	private static final class PoiDocument implements MsgDocument {
+		private final DocumentEntry de;
+
+		private PoiDocument(DocumentEntry de) {
+			this.de = de;
+		}
+
+		@NotNull
+		@Override
+		public String getName() {
+			return de.getName();
+		}
+
+		@Override
+		public int getSize() {
+			return de.getSize();
+		}
+
+		@NotNull
+		@Override
+		public byte[] read()
+				throws IOException {
+			final byte[] data = new byte[de.getSize()];
+			read(data);
+			return data;
+		}
+
+		@Override
+		public int read(@NotNull final byte[] destination)
+				throws IOException {
+			final int length = Math.min(de.getSize(), destination.length);
+			try (DocumentInputStream is = new DocumentInputStream(de)) {
+				is.readFully(destination, 0, length);
+			}
+			return length;
+		}
+	}
+}
@@ -0,0 +1,101 @@
+package org.simplejavamail.outlookmessageparser.container;
+
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The built-in {@link MsgContainerBackend}s.
+ */
+public enum StandardMsgContainerBackend implements MsgContainerBackend {
+
+	/**
+	 * {@link CompoundFile}, memory-mapping files read-only until the container is closed (see {@link CompoundFile#open(Path)}). This is the
+	 * default.
+	 */
+	COMPOUND_FILE_MAPPED {
+		@NotNull
+		@Override
+		public MsgContainer open(@NotNull final Path path)
+				throws IOException {
+			return CompoundFile.open(path);
+		}
+	},
+
+	/**
+	 * {@link CompoundFile}, reading files by position through a {@link FileChannel} instead of mapping them.
+	 */
+	COMPOUND_FILE_CHANNEL {
+		@NotNull
+		@Override
+		public MsgContainer open(@NotNull final Path path)
+				throws IOException {
+			return CompoundFile.open(FileChannel.open(path, StandardOpenOption.READ));
+		}
+	},
+
+	/**
+	 * POI's {@link POIFSFileSystem}, which reads the complete property tree and allocation tables when opened. Sources other than files and
+	 * {@link FileChannel}s are read into memory first.
+	 */
+	POI {
+		@NotNull
+		@Override
+		public MsgContainer open(@NotNull final Path path)
+				throws IOException {
+			return new PoiMsgContainer(new POIFSFileSystem(path.toFile(), true));
+		}
+
+		@NotNull
+		@Override
+		public MsgContainer open(@NotNull final SeekableByteChannel channel)
+				throws IOException {
+			try {
+				if (channel instanceof FileChannel) {
+					// POI does not close channels it was given, so the container does
+					return new PoiMsgContainer(new POIFSFileSystem((FileChannel) channel, true), channel);
+				}
+				try (SeekableByteChannel managedChannel = channel) {
+					return new PoiMsgContainer(new POIFSFileSystem(Channels.newInputStream(managedChannel)));
+				}
+			} catch (IOException | RuntimeException e) {
+				channel.close();
+				throw e;
+			}
+		}
+
+		@NotNull
+		@Override
+		public MsgContainer open(@NotNull final ByteBuffer buffer)
+				throws IOException {
+			if (buffer.hasArray()) {
+				return new PoiMsgContainer(new POIFSFileSystem(new ByteArrayInputStream(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining())));
+			}
+			final byte[] bytes = new byte[buffer.remaining()];
+			buffer.duplicate().get(bytes);
+			return new PoiMsgContainer(new POIFSFileSystem(new ByteArrayInputStream(bytes)));
+		}
+	};
+
+	@NotNull
+	@Override
+	public MsgContainer open(@NotNull final SeekableByteChannel channel)
+			throws IOException {
+		return CompoundFile.open(channel);
+	}
+
+	@NotNull
+	@Override
+	public MsgContainer open(@NotNull final ByteBuffer buffer)
+			throws IOException {
+		return CompoundFile.open(buffer);
+	}
+}
@@ -4,70 +4,80 @@ import org.apache.poi.hsmf.datatypes.MAPIProperty;
 import org.apache.poi.poifs.filesystem.DocumentEntry;
 
 /**
- * Convenience class for storing type information about a {@link DocumentEntry}.
+ * Convenience class for storing type information about a {@link DocumentEntry}. Immutable, so instances may be shared between entries and threads.
  */
 public class OutlookFieldInformation {
 
 	/**
-	 * The default value for both the {@link #clazz} and the {@link #type} properties.
+	 * The default value for both the {@link #getClazz()} and the {@link #getType()} properties.
 	 */
 	public static final String UNKNOWN = "unknown";
 
 	/**
-	 * The default value for the {@link #mapiType}
+	 * The default value for the {@link #getMapiType()}
 	 */
 	public static final int UNKNOWN_MAPITYPE = -1;
 
 	/**
-	 * The class of the {@link DocumentEntry}.
+	 * Whether the {@link DocumentEntry} holds a property at all. If not, {@link #tag} is meaningless.
 	 */
-	private final String clazz;
+	private final boolean known;
 
 	/**
-	 * The type of the {@link DocumentEntry}.
+	 * The MAPI property tag of the {@link DocumentEntry}: its class (property id) in the high word and its mapi type in the low word.
 	 */
-	private final String type;
+	private final int tag;
 
 	/**
-	 * The mapi type of the {@link DocumentEntry}.
-	 */
-	private final int mapiType;
-
-	/**
-	 * Delegates to {@link #OutlookFieldInformation(String, int)} with values {@value #UNKNOWN}, {@value #UNKNOWN} and {@value #UNKNOWN_MAPITYPE}.
+	 * Creates an instance for a {@link DocumentEntry} that does not hold a property, with class and type {@value #UNKNOWN} and mapi type
+	 * {@value #UNKNOWN_MAPITYPE}.
 	 */
 	public OutlookFieldInformation() {
-		this(UNKNOWN, UNKNOWN_MAPITYPE);
+		this.known = false;
+		this.tag = 0;
 	}
 
 	/**
-	 * @param clazz    The class of the {@link DocumentEntry}.
+	 * @param clazz    The class of the {@link DocumentEntry}, as a 4 digit hex code.
 	 * @param mapiType The mapiType of the {@link DocumentEntry} (see {@link MAPIProperty}).
 	 */
 	public OutlookFieldInformation(final String clazz, final int mapiType) {
-		this.clazz = clazz;
-		this.type = UNKNOWN;
-		this.mapiType = mapiType;
+		this(Integer.parseInt(clazz, 16) << 16 | mapiType & 0xFFFF);
+	}
+
+	/**
+	 * @param tag The MAPI property tag of the {@link DocumentEntry}.
+	 */
+	public OutlookFieldInformation(final int tag) {
+		this.known = true;
+		this.tag = tag;
+	}
+
+	/**
+	 * @return The MAPI property tag, only meaningful if {@link #getMapiType()} is not {@value #UNKNOWN_MAPITYPE}.
+	 */
+	public int getTag() {
+		return tag;
 	}
 
 	/**
-	 * Bean getter for {@link #clazz}.
+	 * @return The class of the {@link DocumentEntry}, as a 4 digit, lower case hex code.
 	 */
 	public String getClazz() {
-		return clazz;
+		return known ? Integer.toHexString(0x10000 | tag >>> 16).substring(1) : UNKNOWN;
 	}
 
 	/**
-	 * Bean getter for {@link #type}.
+	 * @return The type of the {@link DocumentEntry}, which is always {@value #UNKNOWN} (see {@link #getMapiType()} instead).
 	 */
 	public String getType() {
-		return type;
+		return UNKNOWN;
 	}
 
 	/**
-	 * Bean getter for {@link #mapiType}.
+	 * @return The mapi type of the {@link DocumentEntry}.
 	 */
 	public int getMapiType() {
-		return mapiType;
+		return known ? tag & 0xFFFF : UNKNOWN_MAPITYPE;
 	}
-}
\ No newline at end of file
+}
@@ -39,28 +39,27 @@ public class OutlookFileAttachment implements OutlookAttachment {
 	 * Sets the property specified by the name parameter. Unknown names are ignored.
 	 */
 	public void setProperty(final OutlookMessageProperty msgProp) {
-		final String name = msgProp.getClazz();
 		final Object value = msgProp.getData();
 
-		if (name != null && value != null) {
-			switch (name) {
-				case "3701":
+		if (value != null) {
+			switch (msgProp.getId()) {
+				case 0x3701:
 					setSize(msgProp.getSize());
 					setData((byte[]) value);
 					break;
-				case "3704":
+				case 0x3704:
 					setFilename((String) value);
 					break;
-				case "3707":
+				case 0x3707:
 					setLongFilename((String) value);
 					break;
-				case "370e":
+				case 0x370e:
 					setMimeTag((String) value);
 					break;
-				case "3703":
+				case 0x3703:
 					setExtension((String) value);
 					break;
-				case "3712":
+				case 0x3712:
 					setContentId((String) value);
 					break;
 				default:
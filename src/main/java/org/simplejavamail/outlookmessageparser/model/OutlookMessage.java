@@ -1,7 +1,5 @@
 package org.simplejavamail.outlookmessageparser.model;
 
-import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
-
 import org.apache.commons.io.IOUtils;
 import org.apache.poi.hmef.CompressedRTF;
 import org.apache.poi.hsmf.datatypes.MAPIProperty;
@@ -19,9 +17,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.ByteArrayInputStream;
+import java.io.Closeable;
 import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.*;
@@ -39,8 +39,12 @@ import static org.bbottema.rtftohtml.impl.util.CodePage.WINDOWS_1252;
  * Class that represents a .msg file. Some fields from the .msg file are stored in special parameters (e.g., {@link #fromEmail}). Attachments are stored in the
  * property {@link #outlookAttachments}). An attachment may be of the type {@link OutlookMsgAttachment} which represents another attached (encapsulated) .msg
  * object.
+ * <p>
+ * Messages parsed with {@link org.simplejavamail.outlookmessageparser.OutlookMessageParser#parseMsgLazily(java.nio.file.Path)} keep the .msg
+ * file open and decode their bodies and other variable-length properties when first accessed, so they have to be closed. Closing other
+ * messages has no effect.
  */
-public class OutlookMessage {
+public class OutlookMessage implements Closeable {
 	
 	private static final Logger LOGGER = LoggerFactory.getLogger(OutlookMessage.class);
 	
@@ -126,16 +130,16 @@ public class OutlookMessage {
 	/**
 	 * Email Date
 	 */
-	private Date date;
+	private Instant date;
 
 	/**
 	 * Client Submit Time
 	 */
-	private Date clientSubmitTime;
+	private Instant clientSubmitTime;
 
-	private Date creationDate;
+	private Instant creationDate;
 
-	private Date lastModificationDate;
+	private Instant lastModificationDate;
 	/**
 	 * A list of all outlookAttachments (both {@link OutlookFileAttachment}
 	 * and {@link OutlookMsgAttachment}).
@@ -145,13 +149,47 @@ public class OutlookMessage {
 	 * Contains all properties that are not
 	 * covered by the special properties.
 	 */
-	private final Map<Integer, Object> properties = new TreeMap<>();
+	private final PropertyValues properties = new PropertyValues();
+	/**
+	 * The named properties of the .msg file by the property id (0x8000 and above) they are mapped to. Attached messages share the mapping
+	 * of the .msg file they are attached to.
+	 */
+	private Map<Integer, OutlookNamedProperty> namedProperties = Collections.emptyMap();
+	/**
+	 * The reverse of {@link #namedProperties}.
+	 */
+	private Map<OutlookNamedProperty, Integer> namedPropertyIds = Collections.emptyMap();
 	/**
 	 * A list containing all recipients for this message
 	 * (which can be set in the 'to:', 'cc:' and 'bcc:' field, respectively).
 	 */
 	private final List<OutlookRecipient> recipients = new ArrayList<>();
 
+	/**
+	 * The .msg file deferred properties are read from, which is closed by {@link #close()}. Only set on the top-level message, attached
+	 * messages share the .msg file of their parent.
+	 */
+	@Nullable
+	private final Closeable source;
+
+	/**
+	 * Body properties (text, HTML and compressed RTF) whose decoding has been deferred, in the order they were set. They are applied to the
+	 * body attributes when one of those is first read, see {@link #resolveDeferredBodies()}.
+	 */
+	private final List<OutlookMessageProperty> deferredBodies = new ArrayList<>(0);
+	private RtfToHtmlConverter deferredRtf2HtmlConverter;
+
+	public OutlookMessage() {
+		this(null);
+	}
+
+	/**
+	 * @param source The .msg file deferred properties are read from, to be closed by {@link #close()}.
+	 */
+	public OutlookMessage(@Nullable final Closeable source) {
+		this.source = source;
+	}
+
 	private static final Pattern XML_CHARSET_PATTERN = compile("charset=(\"|)(?<charset>[\\w\\-]+)\\1", CASE_INSENSITIVE);
 	
 	public void addAttachment(final OutlookAttachment outlookAttachment) {
@@ -164,102 +202,196 @@ public class OutlookMessage {
 
 	/**
 	 * Sets the name/value pair in the {@link #properties} map. Some properties are put into special attributes (e.g., {@link #setSubject(String)} when the property name is '0x37').
-	 */
-	@SuppressFBWarnings("SF_SWITCH_NO_DEFAULT")
-	public void setProperty(final OutlookMessageProperty msgProp, RtfToHtmlConverter rtf2HTMLConverter) {
-		final String name = msgProp.getClazz();
-		final Object value = msgProp.getData();
+	 *
+	 * @param rtf2HTMLConverter Converts the RTF body to {@link #convertedBodyHTML}, or {@code null} to leave that empty.
+	 */
+	public void setProperty(final OutlookMessageProperty msgProp, @Nullable RtfToHtmlConverter rtf2HTMLConverter) {
+		if (msgProp.isDeferred()) {
+			final int mapiClass = msgProp.getId();
+			if (mapiClass == 0x1000 || mapiClass == 0x1013 || mapiClass == 0x1009) { //BODY, HTML, RTF COMPRESSED
+				deferredBodies.add(msgProp);
+				deferredRtf2HtmlConverter = rtf2HTMLConverter;
+				properties.putDeferred(mapiClass, msgProp);
+				return;
+			} else if (!hasSpecialAttribute(mapiClass)) {
+				properties.putDeferred(mapiClass, msgProp);
+				return;
+			}
+			// special attributes are set right away, which decodes the property below
+		}
 
-		if (name == null || value == null) {
+		if (msgProp.isFixedWidth()) {
+			properties.putFixedWidth(msgProp.getId(), msgProp.getType(), msgProp.getBits());
+			if (msgProp.getType() == 0x40) { //SYSTIME
+				setTime(msgProp.getId(), OutlookMessageProperty.toInstant(msgProp.getBits()));
+			}
+			// none of the special attributes below is numeric
 			return;
 		}
 
-		//Most fields expect a String representation of the value
-		final String stringValue = convertValueToString(value);
+		final Object value = msgProp.getData();
 
-		int mapiClass = -1;
-		try {
-			mapiClass = Integer.parseInt(name, 16);
-		} catch (final NumberFormatException e) {
-			LOGGER.trace("Unexpected type: {}", name, e);
+		if (value == null) {
+			return;
 		}
 
+		if ((msgProp.getType() & 0x1000) != 0) {
+			// multi-valued properties (e.g. categories and keywords) are not covered by the special attributes below
+			properties.put(msgProp.getId(), value);
+			return;
+		}
+
+		final int mapiClass = msgProp.getId();
+		setSpecialAttribute(mapiClass, value, rtf2HTMLConverter);
+
+		// save all properties (incl. those identified above)
+		properties.put(mapiClass, value);
+
+		// other possible values (some are duplicates)
+		// 0044: recv name
+		// 004d: author
+		// 0050: reply
+		// 005a: sender
+		// 0065: sent email
+		// 0076: received email
+		// 0078: repr. email
+		// 0c1a: sender name
+		// 0e04: to
+		// 0e1d: subject normalized
+		// 1046: sender email
+		// 3003: email address
+		// 1008 rtf sync
+	}
+
+	/**
+	 * Puts the value of a property into its special attribute, if it has one. Values are only converted to a String for the attributes
+	 * that expect one.
+	 */
+	private void setSpecialAttribute(final int mapiClass, final Object value, @Nullable final RtfToHtmlConverter rtf2HTMLConverter) {
 		switch (mapiClass) {
 			case 0x1a: //MESSAGE CLASS
-				setMessageClass(stringValue);
+				setMessageClass(convertValueToString(value));
 				break;
 			case 0x1035:
-				setMessageId(stringValue);
+				setMessageId(convertValueToString(value));
 				break;
 			case 0x37: //SUBJECT
 			case 0xe1d: //NORMALIZED SUBJECT
-				setSubject(stringValue);
+				setSubject(convertValueToString(value));
 				break;
 			case 0xc1f: //SENDER EMAIL ADDRESS
 			case 0x65: //SENT REPRESENTING EMAIL ADDRESS
-				setFromEmail(stringValue);
+				setFromEmail(convertValueToString(value));
 				break;
 			case 0x3ffa: //LAST MODIFIER NAME
-				setLastModifierName(stringValue);
+				setLastModifierName(convertValueToString(value));
 				break;
 			case 0x42: //SENT REPRESENTING NAME
-				setFromName(stringValue);
+				setFromName(convertValueToString(value));
 				break;
 			case 0xe04: //DISPLAY TO
-				setDisplayTo(stringValue);
+				setDisplayTo(convertValueToString(value));
 				break;
 			case 0xe03: //DISPLAY CC
-				setDisplayCc(stringValue);
+				setDisplayCc(convertValueToString(value));
 				break;
 			case 0xe02: //DISPLAY BCC
-				setDisplayBcc(stringValue);
+				setDisplayBcc(convertValueToString(value));
 				break;
 			case 0x1013: //HTML
-				setBodyHTML(stringValue);
+				setBodyHTML(convertValueToString(value));
 				break;
 			case 0x1000: //BODY
-				setBodyText(stringValue);
+				setBodyText(convertValueToString(value));
 				break;
 			case 0x1009: //RTF COMPRESSED
 				setBodyRTF(value, rtf2HTMLConverter);
 				break;
 			case 0x7d: //TRANSPORT MESSAGE HEADERS
-				setHeaders(stringValue);
+				setHeaders(convertValueToString(value));
 				break;
 			case 0x3007: //CREATION TIME
-				setCreationDate(stringValue);
-				break;
 			case 0x3008: //LAST MODIFICATION TIME
-				setLastModificationDate(stringValue);
-				break;
 			case 0x39: //CLIENT SUBMIT TIME
-				setClientSubmitTime(stringValue);
-				break;
-			case  0x8003: // S/MIME details
-				setSmimeMultipartSigned(stringValue);
-				break;
-			case  0x8005: // S/MIME details
-				setSmimeApplicationSmime(stringValue);
+				if (value instanceof Date) {
+					setTime(mapiClass, ((Date) value).toInstant());
+				}
 				break;
+			default:
+				if (isContentType(mapiClass)) { // S/MIME details
+					final String contentType = convertValueToString(value);
+					final String mimeType = contentType.split(";", 2)[0].trim().toLowerCase(Locale.ROOT);
+					if (mimeType.equals("multipart/signed")) {
+						setSmimeMultipartSigned(contentType);
+					} else if (mimeType.endsWith("pkcs7-mime")) {
+						setSmimeApplicationSmime(contentType);
+					}
+				}
 		}
+	}
 
-		// save all properties (incl. those identified above)
-		properties.put(mapiClass, value);
+	/**
+	 * @return Whether {@link #setSpecialAttribute(int, Object, RtfToHtmlConverter)} puts the property with the given id into a special
+	 * attribute, apart from the bodies. These are the header properties of a message.
+	 */
+	public boolean hasSpecialAttribute(final int mapiClass) {
+		switch (mapiClass) {
+			case 0x1a:
+			case 0x1035:
+			case 0x37:
+			case 0xe1d:
+			case 0xc1f:
+			case 0x65:
+			case 0x3ffa:
+			case 0x42:
+			case 0xe04:
+			case 0xe03:
+			case 0xe02:
+			case 0x7d:
+			case 0x3007:
+			case 0x3008:
+			case 0x39:
+				return true;
+			default:
+				return isContentType(mapiClass);
+		}
+	}
 
-		// other possible values (some are duplicates)
-		// 0044: recv name
-		// 004d: author
-		// 0050: reply
-		// 005a: sender
-		// 0065: sent email
-		// 0076: received email
-		// 0078: repr. email
-		// 0c1a: sender name
-		// 0e04: to
-		// 0e1d: subject normalized
-		// 1046: sender email
-		// 3003: email address
-		// 1008 rtf sync
+	/**
+	 * @return Whether the property with the given id is the {@link OutlookNamedProperty#CONTENT_TYPE} named property in this message.
+	 */
+	private boolean isContentType(final int mapiClass) {
+		return mapiClass >= 0x8000 && OutlookNamedProperty.CONTENT_TYPE.equals(namedProperties.get(mapiClass));
+	}
+
+	/**
+	 * Decodes the deferred body properties and applies them to the body attributes, in the order they were set (as setting them right
+	 * away would have).
+	 */
+	private void resolveDeferredBodies() {
+		if (!deferredBodies.isEmpty()) {
+			final List<OutlookMessageProperty> bodies = new ArrayList<>(deferredBodies);
+			deferredBodies.clear();
+			for (final OutlookMessageProperty body : bodies) {
+				final Object value = body.getData();
+				if (value != null) {
+					setSpecialAttribute(body.getId(), value, deferredRtf2HtmlConverter);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Closes the .msg file of a message parsed with
+	 * {@link org.simplejavamail.outlookmessageparser.OutlookMessageParser#parseMsgLazily(java.nio.file.Path)}, after which properties that
+	 * have not been read yet can no longer be decoded. Does nothing for other messages.
+	 */
+	@Override
+	public void close()
+			throws IOException {
+		if (source != null) {
+			source.close();
+		}
 	}
 
 	private String convertValueToString(final Object value) {
@@ -348,31 +480,6 @@ public class OutlookMessage {
 		return res;
 	}
 
-	/**
-	 * @param date The date string to be converted (e.g.: 'Mon Jul 23 15:43:12 CEST 2012')
-	 * @return A {@link Date} object representing the given date string.
-	 */
-	private static Date parseDateString(final String date) {
-		//in order to parse the date we try using the US locale before we 
-		//fall back to the default locale.
-		final List<SimpleDateFormat> sdfList = new ArrayList<>(2);
-		sdfList.add(new SimpleDateFormat("EEE MMM d HH:mm:ss z yyyy", Locale.US));
-		sdfList.add(new SimpleDateFormat("EEE MMM d HH:mm:ss z yyyy"));
-
-		Date d = null;
-		for (final SimpleDateFormat sdf : sdfList) {
-			try {
-				d = sdf.parse(date);
-				if (d != null) {
-					break;
-				}
-			} catch (final ParseException e) {
-				LOGGER.trace("Unexpected date format for date {}", date, e);
-			}
-		}
-		return d;
-	}
-
 	/**
 	 * Decompresses compressed RTF data.
 	 *
@@ -407,7 +514,7 @@ public class OutlookMessage {
 		appendRecipients(sb, "Bcc: ", getBccRecipients());
 		if (date != null) {
 			final SimpleDateFormat formatter = new SimpleDateFormat("EEE, d MMM yyyy HH:mm:ss z", Locale.ENGLISH);
-			sb.append("Date: ").append(formatter.format(date)).append("\n");
+			sb.append("Date: ").append(formatter.format(Date.from(date))).append("\n");
 		}
 		if (subject != null) {
 			sb.append("Subject: ").append(subject).append("\n");
@@ -458,7 +565,7 @@ public class OutlookMessage {
 			for (String smimeHeaderParam : copyOfRange(smimeHeaderParts, 1, smimeHeaderParts.length)) {
 				final String[] smimeParamParts = smimeHeaderParam.split("=");
 				String paramName = smimeParamParts[0].trim();
-				String paramValue = smimeParamParts[1].trim();
+				String paramValue = smimeParamParts[1].trim().replaceFirst("^\"(.*)\"$", "$1");
 				if (paramName.equals("smime-type")) {
 					smimeType = paramValue;
 				} else if (paramName.equals("name")) {
@@ -801,6 +908,7 @@ public class OutlookMessage {
 	 */
 	@SuppressWarnings("ElementOnlyUsedFromTestCode")
 	public String getBodyText() {
+		resolveDeferredBodies();
 		return bodyText;
 	}
 
@@ -818,13 +926,14 @@ public class OutlookMessage {
 	 */
 	@SuppressWarnings("ElementOnlyUsedFromTestCode")
 	public String getBodyRTF() {
+		resolveDeferredBodies();
 		return bodyRTF;
 	}
 
 	/**
 	 * @param bodyRTF the bodyRTF to set
 	 */
-	private void setBodyRTF(final Object bodyRTF, RtfToHtmlConverter rtf2htmlConverter) {
+	private void setBodyRTF(final Object bodyRTF, @Nullable RtfToHtmlConverter rtf2htmlConverter) {
 		// we simply try to decompress the RTF data if it's not compressed, the utils class is able to detect this anyway
 		if (this.bodyRTF == null && bodyRTF != null) {
 			if (bodyRTF instanceof byte[]) {
@@ -832,7 +941,9 @@ public class OutlookMessage {
 					final byte[] decompressedBytes = decompressRtfBytes((byte[]) bodyRTF);
 					if (decompressedBytes != null) {
 						this.bodyRTF = new String(decompressedBytes, WINDOWS_1252.getCharset());
-						setConvertedBodyHTML(rtf2htmlConverter.toHtml(decompressedBytes));
+						if (rtf2htmlConverter != null) {
+							setConvertedBodyHTML(rtf2htmlConverter.toHtml(decompressedBytes));
+						}
 					}
 				} catch (IllegalArgumentException e) {
 					LOGGER.info("Error occurred while extracting compressed RTF from source msg", e);
@@ -848,6 +959,7 @@ public class OutlookMessage {
 	 */
 	@SuppressWarnings("ElementOnlyUsedFromTestCode")
 	public String getBodyHTML() {
+		resolveDeferredBodies();
 		return bodyHTML;
 	}
 
@@ -856,6 +968,7 @@ public class OutlookMessage {
 	 */
 	@SuppressWarnings("ElementOnlyUsedFromTestCode")
 	public String getConvertedBodyHTML() {
+		resolveDeferredBodies();
 		return convertedBodyHTML;
 	}
 
@@ -983,14 +1096,21 @@ public class OutlookMessage {
 	 * Bean getter for {@link #date}.
 	 */
 	public Date getDate() {
-		return (Date) date.clone();
+		return date != null ? Date.from(date) : null;
+	}
+
+	/**
+	 * Bean getter for {@link #date}, see {@link #getDate()}.
+	 */
+	public Instant getDateInstant() {
+		return date;
 	}
 
 	/**
 	 * Bean setter for {@link #date}.
 	 */
 	private void setDate(final Date date) {
-		this.date = date;
+		this.date = date.toInstant();
 	}
 
 	/**
@@ -998,48 +1118,60 @@ public class OutlookMessage {
 	 */
 	@Nullable
 	public Date getClientSubmitTime() {
-		return clientSubmitTime != null ? (Date) clientSubmitTime.clone() : null;
+		return clientSubmitTime != null ? Date.from(clientSubmitTime) : null;
 	}
 
-	private void setClientSubmitTime(final String value) {
-		if (value != null) {
-			final Date d = parseDateString(value);
-			if (d != null) {
-				clientSubmitTime = d;
-			}
-		}
+	/**
+	 * @return {@link #clientSubmitTime} or null in case this message has not been sent yet, see {@link #getClientSubmitTime()}.
+	 */
+	@Nullable
+	public Instant getClientSubmitTimeInstant() {
+		return clientSubmitTime;
 	}
 
 	/**
 	 * Bean getter for {@link #creationDate}.
 	 */
 	public Date getCreationDate() {
-		return (Date) creationDate.clone();
+		return creationDate != null ? Date.from(creationDate) : null;
 	}
 
-	private void setCreationDate(final String value) {
-		if (value != null) {
-			final Date d = parseDateString(value);
-			if (d != null) {
-				creationDate = d;
-				setDate(d);
-			}
-		}
+	/**
+	 * Bean getter for {@link #creationDate}, see {@link #getCreationDate()}.
+	 */
+	public Instant getCreationDateInstant() {
+		return creationDate;
 	}
 
 	/**
 	 * Bean getter for {@link #lastModificationDate}.
 	 */
 	public Date getLastModificationDate() {
-		return (Date) lastModificationDate.clone();
+		return lastModificationDate != null ? Date.from(lastModificationDate) : null;
 	}
 
-	private void setLastModificationDate(final String value) {
-		if (value != null) {
-			final Date d = parseDateString(value);
-			if (d != null) {
-				lastModificationDate = d;
-			}
+	/**
+	 * Bean getter for {@link #lastModificationDate}, see {@link #getLastModificationDate()}.
+	 */
+	public Instant getLastModificationDateInstant() {
+		return lastModificationDate;
+	}
+
+	/**
+	 * Sets the special attribute for a time property. The creation time is also used as {@link #date}, unless the mail headers provide one.
+	 */
+	private void setTime(final int mapiClass, final Instant time) {
+		switch (mapiClass) {
+			case 0x3007: //CREATION TIME
+				creationDate = time;
+				date = time;
+				break;
+			case 0x3008: //LAST MODIFICATION TIME
+				lastModificationDate = time;
+				break;
+			case 0x39: //CLIENT SUBMIT TIME
+				clientSubmitTime = time;
+				break;
 		}
 	}
 
@@ -1053,7 +1185,7 @@ public class OutlookMessage {
 	 * @return All available keys properties have been found for.
 	 */
 	public Set<String> getPropertiesAsHex() {
-		final Set<Integer> keySet = properties.keySet();
+		final Set<Integer> keySet = properties.ids();
 		final Set<String> result = new HashSet<>();
 		for (final Integer k : keySet) {
 			final String s = convertToHex(k);
@@ -1069,7 +1201,7 @@ public class OutlookMessage {
 	 * @return All available keys properties have been found for.
 	 */
 	public Set<Integer> getPropertyCodes() {
-		return properties.keySet();
+		return properties.ids();
 	}
 
 	/**
@@ -1081,9 +1213,120 @@ public class OutlookMessage {
 	 * @return The value of the specified property.
 	 */
 	public Object getPropertyValue(final Integer code) {
+		return code != null ? properties.get(code) : null;
+	}
+
+	/**
+	 * Same as {@link #getPropertyValue(Integer)}, but without boxing the property code.
+	 *
+	 * @param code The key for the property to be retrieved.
+	 * @return The value of the specified property.
+	 */
+	public Object getPropertyValue(final int code) {
 		return properties.get(code);
 	}
 
+	/**
+	 * @param namedProperty The named property to be retrieved.
+	 * @return The value of the named property, or {@code null} if the .msg file does not map it or has no value for it.
+	 */
+	@Nullable
+	public Object getNamedPropertyValue(@NotNull final OutlookNamedProperty namedProperty) {
+		final Integer code = namedPropertyIds.get(namedProperty);
+		return code != null ? properties.get(code) : null;
+	}
+
+	/**
+	 * @param namedProperty The named property to be looked up.
+	 * @return The property id the .msg file maps the named property to, or {@code null} if it does not map it.
+	 */
+	@Nullable
+	public Integer getNamedPropertyId(@NotNull final OutlookNamedProperty namedProperty) {
+		return namedPropertyIds.get(namedProperty);
+	}
+
+	/**
+	 * Bean getter for {@link #namedProperties}.
+	 */
+	@NotNull
+	public Map<Integer, OutlookNamedProperty> getNamedProperties() {
+		return namedProperties;
+	}
+
+	/**
+	 * Sets the named property mapping of the .msg file, which must be done before the properties are set.
+	 *
+	 * @param namedProperties The named properties by the property id they are mapped to.
+	 */
+	public void setNamedProperties(@NotNull final Map<Integer, OutlookNamedProperty> namedProperties) {
+		final Map<OutlookNamedProperty, Integer> ids = new HashMap<>(namedProperties.size() * 2);
+		for (final Map.Entry<Integer, OutlookNamedProperty> namedProperty : namedProperties.entrySet()) {
+			ids.putIfAbsent(namedProperty.getValue(), namedProperty.getKey());
+		}
+		this.namedProperties = Collections.unmodifiableMap(namedProperties);
+		this.namedPropertyIds = ids;
+	}
+
+	/**
+	 * @param code The key for the property to be checked.
+	 * @return Whether a value has been found for the property.
+	 */
+	public boolean hasProperty(final int code) {
+		return properties.contains(code);
+	}
+
+	/**
+	 * Reads a numeric property without boxing its value, such as {@code 0x0e08} (message size) or {@code 0x0e07} (message flags).
+	 *
+	 * @param code The key for the property to be retrieved.
+	 * @return The value of the specified property truncated to an {@code int}, or 0 if it is missing or not numeric.
+	 */
+	public int getIntProperty(final int code) {
+		return (int) properties.getLong(code);
+	}
+
+	/**
+	 * Reads a numeric property without boxing its value, see {@link #getIntProperty(int)}.
+	 *
+	 * @param code The key for the property to be retrieved.
+	 * @return The value of the specified property truncated to a {@code long}, or 0 if it is missing or not numeric. Currencies are in units
+	 * of 1/10000 and times are FILETIMEs.
+	 */
+	public long getLongProperty(final int code) {
+		return properties.getLong(code);
+	}
+
+	/**
+	 * Reads a numeric property without boxing its value, see {@link #getIntProperty(int)}.
+	 *
+	 * @param code The key for the property to be retrieved.
+	 * @return The value of the specified property, or 0 if it is missing or not numeric.
+	 */
+	public double getDoubleProperty(final int code) {
+		return properties.getDouble(code);
+	}
+
+	/**
+	 * Reads a boolean (or numeric) property without boxing its value, see {@link #getIntProperty(int)}.
+	 *
+	 * @param code The key for the property to be retrieved.
+	 * @return Whether the specified property is present and {@code true} (or non-zero).
+	 */
+	public boolean getBooleanProperty(final int code) {
+		return properties.getDouble(code) != 0d;
+	}
+
+	/**
+	 * Reads a time property, such as {@code 0x0e06} (message delivery time), with its full (100-nanosecond) precision.
+	 *
+	 * @param code The key for the property to be retrieved.
+	 * @return The value of the specified property, or {@code null} if it is missing or not a time.
+	 */
+	@Nullable
+	public Instant getInstantProperty(final int code) {
+		return properties.getInstant(code);
+	}
+
 	/**
 	 * Generates a string that can be used to debug the properties of the msg.
 	 *
@@ -0,0 +1,133 @@
+package org.simplejavamail.outlookmessageparser.model;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The envelope of an Outlook .msg file, as read by {@code OutlookMessageParser#parseEnvelope} without decoding bodies or reading attachment
+ * data. Immutable.
+ */
+public class OutlookMessageEnvelope {
+
+	private final String messageClass;
+	private final String subject;
+	private final String fromName;
+	private final String fromEmail;
+	private final Date date;
+	private final int recipientCount;
+	private final List<Integer> attachmentSizes;
+
+	public OutlookMessageEnvelope(@Nullable final String messageClass, @Nullable final String subject, @Nullable final String fromName,
+			@Nullable final String fromEmail, @Nullable final Date date, final int recipientCount, @NotNull final List<Integer> attachmentSizes) {
+		this.messageClass = messageClass;
+		this.subject = subject;
+		this.fromName = fromName;
+		this.fromEmail = fromEmail;
+		this.date = date != null ? (Date) date.clone() : null;
+		this.recipientCount = recipientCount;
+		this.attachmentSizes = Collections.unmodifiableList(new ArrayList<>(attachmentSizes));
+	}
+
+	/**
+	 * Bean getter for {@link #messageClass}.
+	 */
+	@Nullable
+	public String getMessageClass() {
+		return messageClass;
+	}
+
+	/**
+	 * Bean getter for {@link #subject}.
+	 */
+	@Nullable
+	public String getSubject() {
+		return subject;
+	}
+
+	/**
+	 * Bean getter for {@link #fromName}.
+	 */
+	@Nullable
+	public String getFromName() {
+		return fromName;
+	}
+
+	/**
+	 * Bean getter for {@link #fromEmail}. For Exchange senders this is taken from the sender SMTP address properties (0x5d01 and 0x5d02),
+	 * which {@code OutlookMessageParser#parseMsg} does not read, so it may differ from {@link OutlookMessage#getFromEmail()}.
+	 */
+	@Nullable
+	public String getFromEmail() {
+		return fromEmail;
+	}
+
+	/**
+	 * @return When the message was sent, or for unsent messages when it was created. {@code null} if neither is known.
+	 */
+	@Nullable
+	public Date getDate() {
+		return date != null ? (Date) date.clone() : null;
+	}
+
+	/**
+	 * Bean getter for {@link #recipientCount}.
+	 */
+	public int getRecipientCount() {
+		return recipientCount;
+	}
+
+	/**
+	 * @return The number of attachments, including attached .msg files.
+	 */
+	public int getAttachmentCount() {
+		return attachmentSizes.size();
+	}
+
+	/**
+	 * @return The size in bytes of each attachment's data, in container order. {@code -1} for attachments without data of their own, such as
+	 * attached .msg files.
+	 */
+	@NotNull
+	public List<Integer> getAttachmentSizes() {
+		return attachmentSizes;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+		OutlookMessageEnvelope that = (OutlookMessageEnvelope) o;
+		return recipientCount == that.recipientCount &&
+				Objects.equals(messageClass, that.messageClass) &&
+				Objects.equals(subject, that.subject) &&
+				Objects.equals(fromName, that.fromName) &&
+				Objects.equals(fromEmail, that.fromEmail) &&
+				Objects.equals(date, that.date) &&
+				attachmentSizes.equals(that.attachmentSizes);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(messageClass, subject, fromName, fromEmail, date, recipientCount, attachmentSizes);
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder sb = new StringBuilder("OutlookMessageEnvelope{");
+		sb.append("messageClass='").append(messageClass).append('\'');
+		sb.append(", subject='").append(subject).append('\'');
+		sb.append(", fromName='").append(fromName).append('\'');
+		sb.append(", fromEmail='").append(fromEmail).append('\'');
+		sb.append(", date=").append(date);
+		sb.append(", recipientCount=").append(recipientCount);
+		sb.append(", attachmentSizes=").append(attachmentSizes);
+		sb.append('}');
+		return sb.toString();
+	}
+}
@@ -0,0 +1,82 @@
+package org.simplejavamail.outlookmessageparser.model;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+
+/**
+ * Outcome of probing a file for being an Outlook .msg file, see {@code OutlookMessageParser#probe}.
+ */
+public class OutlookMessageProbe {
+
+	public enum Verdict {
+		/**
+		 * The input does not start with the compound file signature, so it is not a .msg file (nor any other OLE2 file).
+		 */
+		NOT_COMPOUND_FILE,
+		/**
+		 * The input starts with the compound file signature, but its structure is truncated or corrupt, so it cannot be read as a .msg file.
+		 */
+		CORRUPT,
+		/**
+		 * The input is a compound file, but without a message class, so it is some other OLE2 file (such as a legacy Office document).
+		 */
+		NOT_OUTLOOK_MESSAGE,
+		/**
+		 * The input is a compound file with a message class.
+		 */
+		OUTLOOK_MESSAGE
+	}
+
+	private final Verdict verdict;
+	private final String messageClass;
+
+	public OutlookMessageProbe(@NotNull final Verdict verdict, @Nullable final String messageClass) {
+		this.verdict = verdict;
+		this.messageClass = messageClass;
+	}
+
+	public boolean isOutlookMessage() {
+		return verdict == Verdict.OUTLOOK_MESSAGE;
+	}
+
+	/**
+	 * Bean getter for {@link #verdict}.
+	 */
+	@NotNull
+	public Verdict getVerdict() {
+		return verdict;
+	}
+
+	/**
+	 * Bean getter for {@link #messageClass}, such as {@code IPM.Note}. Only available for {@link Verdict#OUTLOOK_MESSAGE}.
+	 */
+	@Nullable
+	public String getMessageClass() {
+		return messageClass;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+		OutlookMessageProbe that = (OutlookMessageProbe) o;
+		return verdict == that.verdict &&
+				Objects.equals(messageClass, that.messageClass);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(verdict, messageClass);
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder sb = new StringBuilder("OutlookMessageProbe{");
+		sb.append("verdict=").append(verdict);
+		sb.append(", messageClass='").append(messageClass).append('\'');
+		sb.append('}');
+		return sb.toString();
+	}
+}
@@ -1,35 +1,258 @@
 package org.simplejavamail.outlookmessageparser.model;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.Date;
+
 /**
  * Represents a message property holding the type of data and the data itself.
  */
 public class OutlookMessageProperty {
 
+	private static final long FILETIME_TICKS_PER_SECOND = 10_000_000L;
 	/**
-	 * A 4 digit code representing the property type.
+	 * Seconds from January 1, 1601 (the FILETIME epoch) to January 1, 1970.
 	 */
-	private final String clazz;
-	private final Object data;
+	private static final long FILETIME_EPOCH_OFFSET_SECONDS = 11_644_473_600L;
+
+	/**
+	 * The 32-bit MAPI property tag: the property id (or class) in the high word and the property type in the low word.
+	 */
+	private final int tag;
+	private Object data;
 	private final int size;
+	/**
+	 * The value of a fixed-width property (see {@link #isFixedWidthType(int)}) in the representation documented at {@link #getBits()}, in
+	 * which case {@link #data} is unused.
+	 */
+	private final long bits;
+	private final boolean fixedWidth;
+	/**
+	 * Decodes {@link #data} on first access, for properties created by {@link #ofDeferred(int, int, Loader)}. Cleared once it has been used.
+	 */
+	private Loader loader;
+
+	/**
+	 * Decodes the value of a property whose decoding has been deferred, see {@link #ofDeferred(int, int, Loader)}.
+	 */
+	@FunctionalInterface
+	public interface Loader {
+		Object load()
+				throws IOException;
+	}
 
+	/**
+	 * @param tag  The MAPI property tag, see {@link #tag}.
+	 * @param data The decoded value.
+	 * @param size The size of the value in the .msg file, in bytes.
+	 */
+	public OutlookMessageProperty(final int tag, final Object data, final int size) {
+		this(tag, data, size, 0L, false);
+	}
+
+	/**
+	 * @param clazz The property id as a 4 digit hex code. The property type is left unspecified.
+	 * @param data  The decoded value.
+	 * @param size  The size of the value in the .msg file, in bytes.
+	 */
 	public OutlookMessageProperty(final String clazz, final Object data, final int size) {
-		this.clazz = clazz;
+		this(Integer.parseInt(clazz, 16) << 16, data, size);
+	}
+
+	private OutlookMessageProperty(final int tag, final Object data, final int size, final long bits, final boolean fixedWidth) {
+		this.tag = tag;
 		this.data = data;
 		this.size = size;
+		this.bits = bits;
+		this.fixedWidth = fixedWidth;
+	}
+
+	/**
+	 * Creates a property whose value is only decoded when {@link #getData()} is first called.
+	 *
+	 * @param tag    The MAPI property tag, see {@link #tag}.
+	 * @param size   The size of the value in the .msg file, in bytes.
+	 * @param loader Decodes the value. It is called at most once.
+	 * @return The property.
+	 */
+	public static OutlookMessageProperty ofDeferred(final int tag, final int size, final Loader loader) {
+		final OutlookMessageProperty property = new OutlookMessageProperty(tag, null, size);
+		property.loader = loader;
+		return property;
+	}
+
+	/**
+	 * Creates a property of one of the fixed-width types without boxing its value.
+	 *
+	 * @param tag      The MAPI property tag, see {@link #tag}. Its type must be a fixed-width type, see {@link #isFixedWidthType(int)}.
+	 * @param rawValue The little-endian value as stored in the .msg file. Types narrower than 8 bytes only use the low-order bytes.
+	 * @return The property, holding its value as returned by {@link #getBits()}.
+	 */
+	public static OutlookMessageProperty ofFixedWidth(final int tag, final long rawValue) {
+		final int type = tag & 0xFFFF;
+		switch (type) {
+			case 0x2: //SHORT
+				return new OutlookMessageProperty(tag, null, Short.BYTES, (short) rawValue, true);
+			case 0xb: //BOOLEAN
+				return new OutlookMessageProperty(tag, null, Short.BYTES, (rawValue & 0xFFFF) != 0 ? 1L : 0L, true);
+			case 0x3: //INT
+			case 0xa: //ERROR
+			case 0x4: //FLOAT
+				return new OutlookMessageProperty(tag, null, Integer.BYTES, (int) rawValue, true);
+			case 0x5: //DOUBLE
+			case 0x6: //CURRENCY
+			case 0x7: //APPTIME
+			case 0x14: //LONG
+			case 0x40: //SYSTIME
+				return new OutlookMessageProperty(tag, null, Long.BYTES, rawValue, true);
+			default:
+				throw new IllegalArgumentException("Not a fixed-width property type: " + Integer.toHexString(type));
+		}
+	}
+
+	/**
+	 * @param type A MAPI property type, such as {@code 0x0003} for 32-bit integers.
+	 * @return Whether the type has a value of at most 8 bytes, which is stored inline in a properties stream rather than in its own document.
+	 */
+	public static boolean isFixedWidthType(final int type) {
+		switch (type) {
+			case 0x2: //SHORT
+			case 0x3: //INT
+			case 0x4: //FLOAT
+			case 0x5: //DOUBLE
+			case 0x6: //CURRENCY
+			case 0x7: //APPTIME
+			case 0xa: //ERROR
+			case 0xb: //BOOLEAN
+			case 0x14: //LONG
+			case 0x40: //SYSTIME
+				return true;
+			default:
+				return false;
+		}
+	}
+
+	/**
+	 * Boxes a fixed-width value into the Java type {@link #getData()} uses for it: {@link Integer} for (short) integers and error codes,
+	 * {@link Float}, {@link Double} for doubles and application times, {@link Long} for 64-bit integers and currencies (in units of 1/10000),
+	 * {@link Boolean} and {@link Date}.
+	 *
+	 * @param type The fixed-width MAPI property type, see {@link #isFixedWidthType(int)}.
+	 * @param bits The value as returned by {@link #getBits()}.
+	 */
+	static Object box(final int type, final long bits) {
+		switch (type) {
+			case 0x4: //FLOAT
+				return Float.intBitsToFloat((int) bits);
+			case 0x5: //DOUBLE
+			case 0x7: //APPTIME
+				return Double.longBitsToDouble(bits);
+			case 0x6: //CURRENCY
+			case 0x14: //LONG
+				return bits;
+			case 0xb: //BOOLEAN
+				return bits != 0;
+			case 0x40: //SYSTIME
+				return toDate(bits);
+			default:
+				return (int) bits;
+		}
 	}
 
 	/**
-	 * Bean getter for {@link #clazz}.
+	 * @param fileTime A PT_SYSTIME value: the number of 100-nanosecond intervals since January 1, 1601 (UTC).
+	 * @return The corresponding {@link Instant}, without loss of precision.
+	 */
+	public static Instant toInstant(final long fileTime) {
+		return Instant.ofEpochSecond(Math.floorDiv(fileTime, FILETIME_TICKS_PER_SECOND) - FILETIME_EPOCH_OFFSET_SECONDS,
+				Math.floorMod(fileTime, FILETIME_TICKS_PER_SECOND) * 100L);
+	}
+
+	/**
+	 * @param fileTime A PT_SYSTIME value: the number of 100-nanosecond intervals since January 1, 1601 (UTC).
+	 * @return The corresponding {@link Date}.
+	 */
+	static Date toDate(final long fileTime) {
+		// The following part has been provided by Morten Sørensen (Thanks!)
+		// This parsing has been lifted from the MsgViewer project
+		// https://sourceforge.net/projects/msgviewer/
+
+		// convert to milliseconds and move the offset from since 1601 to 1970
+		return new Date(fileTime / 10000L - 11644473600000L);
+	}
+
+	/**
+	 * Bean getter for {@link #tag}.
+	 */
+	public int getTag() {
+		return tag;
+	}
+
+	/**
+	 * @return The property id (or class), such as {@code 0x0037} for the subject.
+	 */
+	public int getId() {
+		return tag >>> 16;
+	}
+
+	/**
+	 * @return The MAPI property type, such as {@code 0x001F} for Unicode strings.
+	 */
+	public int getType() {
+		return tag & 0xFFFF;
+	}
+
+	/**
+	 * @return The property id as a 4 digit, lower case hex code.
 	 */
 	public String getClazz() {
-		return clazz;
+		return Integer.toHexString(0x10000 | getId()).substring(1);
 	}
 
+	/**
+	 * @return The decoded value. Fixed-width values are boxed on every call, see {@link #box(int, long)}, deferred values are decoded on the
+	 * first call.
+	 * @throws UncheckedIOException Thrown if a deferred value could not be read.
+	 */
 	public Object getData() {
+		if (fixedWidth) {
+			return box(getType(), bits);
+		}
+		if (loader != null) {
+			try {
+				data = loader.load();
+			} catch (IOException e) {
+				throw new UncheckedIOException("Could not read property " + getClazz(), e);
+			}
+			loader = null;
+		}
 		return data;
 	}
 
+	/**
+	 * @return Whether the value of this property has not been decoded yet, see {@link #ofDeferred(int, int, Loader)}.
+	 */
+	public boolean isDeferred() {
+		return loader != null;
+	}
+
+	/**
+	 * @return Whether this property was created by {@link #ofFixedWidth(int, long)}, in which case {@link #getBits()} holds its value.
+	 */
+	public boolean isFixedWidth() {
+		return fixedWidth;
+	}
+
+	/**
+	 * @return The value of a fixed-width property: sign-extended for (short) integers and error codes, the raw IEEE 754 bits for floats
+	 * and doubles, 0 or 1 for booleans and the FILETIME (100-nanosecond intervals since 1601) for times.
+	 */
+	public long getBits() {
+		return bits;
+	}
+
 	public int getSize() {
 		return size;
 	}
-}
\ No newline at end of file
+}
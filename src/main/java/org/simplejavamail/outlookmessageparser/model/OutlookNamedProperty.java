@@ -0,0 +1,126 @@
+package org.simplejavamail.outlookmessageparser.model;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A named property ([MS-OXMSG] 2.2.3), identified by a property set GUID and either a string name or a numeric id. Each .msg file maps the
+ * named properties it uses to property ids of 0x8000 and above of its own, so the same named property may have a different id in every
+ * message (see {@link OutlookMessage#getNamedProperties()}).
+ * <p>
+ * Instances are interned in a process-wide cache (up to a limit), so the named properties of all parsed messages share the same instances.
+ * Immutable.
+ */
+public final class OutlookNamedProperty {
+
+	public static final UUID PS_MAPI = UUID.fromString("00020328-0000-0000-c000-000000000046");
+	public static final UUID PS_PUBLIC_STRINGS = UUID.fromString("00020329-0000-0000-c000-000000000046");
+	public static final UUID PS_INTERNET_HEADERS = UUID.fromString("00020386-0000-0000-c000-000000000046");
+	public static final UUID PSETID_COMMON = UUID.fromString("00062008-0000-0000-c000-000000000046");
+	public static final UUID PSETID_ADDRESS = UUID.fromString("00062004-0000-0000-c000-000000000046");
+	public static final UUID PSETID_APPOINTMENT = UUID.fromString("00062002-0000-0000-c000-000000000046");
+
+	private static final Map<OutlookNamedProperty, OutlookNamedProperty> INTERNED = new ConcurrentHashMap<>();
+	/**
+	 * Names in malformed files can be arbitrary, so once the cache is full, further named properties are not interned.
+	 */
+	private static final int INTERNED_LIMIT = 4096;
+
+	/**
+	 * The Content-Type header of the message, which holds the S/MIME details of signed and encrypted messages.
+	 */
+	public static final OutlookNamedProperty CONTENT_TYPE = ofName(PS_INTERNET_HEADERS, "content-type");
+
+	private final UUID guid;
+	/**
+	 * The string name, or {@code null} for a named property identified by {@link #id}.
+	 */
+	@Nullable
+	private final String name;
+	/**
+	 * The numeric id (LID), only meaningful if {@link #name} is {@code null}.
+	 */
+	private final int id;
+
+	private OutlookNamedProperty(final UUID guid, @Nullable final String name, final int id) {
+		this.guid = guid;
+		this.name = name;
+		this.id = id;
+	}
+
+	/**
+	 * @return The named property with the given string name in the given property set.
+	 */
+	@NotNull
+	public static OutlookNamedProperty ofName(@NotNull final UUID guid, @NotNull final String name) {
+		return intern(new OutlookNamedProperty(guid, name, 0));
+	}
+
+	/**
+	 * @return The named property with the given numeric id (LID) in the given property set.
+	 */
+	@NotNull
+	public static OutlookNamedProperty ofId(@NotNull final UUID guid, final int id) {
+		return intern(new OutlookNamedProperty(guid, null, id));
+	}
+
+	private static OutlookNamedProperty intern(final OutlookNamedProperty namedProperty) {
+		final OutlookNamedProperty interned = INTERNED.get(namedProperty);
+		if (interned != null) {
+			return interned;
+		}
+		if (INTERNED.size() < INTERNED_LIMIT) {
+			final OutlookNamedProperty previous = INTERNED.putIfAbsent(namedProperty, namedProperty);
+			return previous != null ? previous : namedProperty;
+		}
+		return namedProperty;
+	}
+
+	/**
+	 * Bean getter for {@link #guid}.
+	 */
+	@NotNull
+	public UUID getGuid() {
+		return guid;
+	}
+
+	/**
+	 * Bean getter for {@link #name}.
+	 */
+	@Nullable
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Bean getter for {@link #id}.
+	 */
+	public int getId() {
+		return id;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+		OutlookNamedProperty that = (OutlookNamedProperty) o;
+		return id == that.id &&
+				guid.equals(that.guid) &&
+				Objects.equals(name, that.name);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(guid, name, id);
+	}
+
+	@Override
+	public String toString() {
+		return "OutlookNamedProperty{" + guid + (name != null ? ", name='" + name + '\'' : ", id=0x" + Integer.toHexString(id)) + '}';
+	}
+}
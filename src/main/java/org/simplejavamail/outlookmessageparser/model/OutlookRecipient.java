@@ -1,14 +1,7 @@
 package org.simplejavamail.outlookmessageparser.model;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
-import java.util.TreeMap;
-
-import static java.lang.Integer.parseInt;
 
 /**
  * This class represents a recipient's entry of the parsed .msg file. It provides informations like the  email address and the display name.
@@ -19,14 +12,12 @@ public class OutlookRecipient {
 	public static final int RECIPIENT_TYPE_CC = 2;
 	public static final int RECIPIENT_TYPE_BCC = 3;
 
-	private static final Logger LOGGER = LoggerFactory.getLogger(OutlookRecipient.class);
-
 	private static final String X500_ADDRESS_PATTERN = "/o=[^/]+/ou=[^/]+(?:/cn=[^/]+)*";
 
 	/**
 	 * Contains all properties that are not covered by the special properties.
 	 */
-	private final Map<Integer, Object> properties = new TreeMap<>();
+	private final PropertyValues properties = new PropertyValues();
 
 	private String name;
 	private String address;
@@ -44,20 +35,13 @@ public class OutlookRecipient {
 	 * @param msgProp The property to be set.
 	 */
 	public void setProperty(final OutlookMessageProperty msgProp) {
-		String name = msgProp.getClazz();
 		final Object value = msgProp.getData();
 
-		if (name == null || value == null) {
+		if (value == null) {
 			return;
 		}
-		name = name.intern();
 
-		int mapiClass = -1;
-		try {
-			mapiClass = parseInt(name, 16);
-		} catch (final NumberFormatException e) {
-			LOGGER.error("Unexpected mapi class: {}", name, e);
-		}
+		final int mapiClass = msgProp.getId();
 
 		if (mapiClass == 0x0c15) {
 			handleRecipientTypeProperty(value);
@@ -146,7 +130,15 @@ public class OutlookRecipient {
 	 * @return All available keys for properties found.
 	 */
 	public Set<Integer> getPropertyCodes() {
-		return properties.keySet();
+		return properties.ids();
+	}
+
+	/**
+	 * @param code The key for the property to be retrieved.
+	 * @return The value of the specified property, or {@code null} if the recipient does not have it.
+	 */
+	public Object getPropertyValue(final int code) {
+		return properties.get(code);
 	}
 
 	/**
@@ -0,0 +1,239 @@
+package org.simplejavamail.outlookmessageparser.model;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Instant;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Property values keyed by their (16 bit) property id, kept in parallel arrays sorted by id. Lookups are a binary search over the
+ * primitive ids, so reading a property neither boxes the id nor allocates map entries.
+ * <p>
+ * Fixed-width values (see {@link OutlookMessageProperty#isFixedWidthType(int)}) are stored unboxed, together with their MAPI type, and are
+ * only boxed when read through {@link #get(int)}. Deferred values (see {@link OutlookMessageProperty#ofDeferred(int, int,
+ * OutlookMessageProperty.Loader)}) are decoded when first read.
+ * <p>
+ * Messages are parsed in property stream order, which is mostly ascending, so appending at the end is the common case for {@link #put(int,
+ * Object)}.
+ */
+final class PropertyValues {
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	/**
+	 * Marks an entry of {@link #types} whose value is held in {@link #values} rather than in {@link #bits}.
+	 */
+	private static final int OBJECT_VALUE = 0;
+	/**
+	 * Marks an entry of {@link #types} whose {@link #values} entry is the {@link OutlookMessageProperty} that decodes the value.
+	 */
+	private static final int DEFERRED_VALUE = -1;
+
+	private int[] ids = new int[INITIAL_CAPACITY];
+	private Object[] values = new Object[INITIAL_CAPACITY];
+	private int[] types = new int[INITIAL_CAPACITY];
+	private long[] bits = new long[INITIAL_CAPACITY];
+	private int size;
+
+	/**
+	 * Read-only view on {@link #ids} in ascending order, which reflects later changes to this store.
+	 */
+	private final Set<Integer> idSet = new IdSet();
+
+	/**
+	 * Stores the value for the given id, replacing the value already stored for that id (if any).
+	 */
+	void put(final int id, @NotNull final Object value) {
+		put(id, value, OBJECT_VALUE, 0L);
+	}
+
+	/**
+	 * Stores the value of a fixed-width property, see {@link #put(int, Object)}.
+	 *
+	 * @param type The fixed-width MAPI type of the value.
+	 * @param bits The value as returned by {@link OutlookMessageProperty#getBits()}.
+	 */
+	void putFixedWidth(final int id, final int type, final long bits) {
+		put(id, null, type, bits);
+	}
+
+	/**
+	 * Stores a property whose value is decoded when it is first read, see {@link #put(int, Object)}.
+	 */
+	void putDeferred(final int id, @NotNull final OutlookMessageProperty property) {
+		put(id, property, DEFERRED_VALUE, 0L);
+	}
+
+	/**
+	 * @return The value stored for the given id, or {@code null} if there is none.
+	 */
+	@Nullable
+	Object get(final int id) {
+		final int index = indexOf(id);
+		if (index < 0) {
+			return null;
+		}
+		return types[index] <= OBJECT_VALUE ? objectValue(index) : OutlookMessageProperty.box(types[index], bits[index]);
+	}
+
+	boolean contains(final int id) {
+		return indexOf(id) >= 0;
+	}
+
+	/**
+	 * @return The numeric value stored for the given id, truncated to a {@code long}, or 0 if there is none.
+	 */
+	long getLong(final int id) {
+		final int index = indexOf(id);
+		if (index < 0) {
+			return 0L;
+		}
+		switch (types[index]) {
+			case DEFERRED_VALUE:
+			case OBJECT_VALUE:
+				final Object value = objectValue(index);
+				if (value instanceof Number) {
+					return ((Number) value).longValue();
+				}
+				return value instanceof Boolean && (Boolean) value ? 1L : 0L;
+			case 0x4: //FLOAT
+				return (long) Float.intBitsToFloat((int) bits[index]);
+			case 0x5: //DOUBLE
+			case 0x7: //APPTIME
+				return (long) Double.longBitsToDouble(bits[index]);
+			default:
+				return bits[index];
+		}
+	}
+
+	/**
+	 * @return The numeric value stored for the given id, or 0 if there is none.
+	 */
+	double getDouble(final int id) {
+		final int index = indexOf(id);
+		if (index < 0) {
+			return 0d;
+		}
+		switch (types[index]) {
+			case DEFERRED_VALUE:
+			case OBJECT_VALUE:
+				final Object value = objectValue(index);
+				return value instanceof Number ? ((Number) value).doubleValue() : getLong(id);
+			case 0x4: //FLOAT
+				return Float.intBitsToFloat((int) bits[index]);
+			case 0x5: //DOUBLE
+			case 0x7: //APPTIME
+				return Double.longBitsToDouble(bits[index]);
+			default:
+				return bits[index];
+		}
+	}
+
+	/**
+	 * @return The time stored for the given id, or {@code null} if there is none.
+	 */
+	@Nullable
+	Instant getInstant(final int id) {
+		final int index = indexOf(id);
+		if (index < 0) {
+			return null;
+		}
+		if (types[index] == 0x40) { //SYSTIME
+			return OutlookMessageProperty.toInstant(bits[index]);
+		}
+		final Object value = types[index] <= OBJECT_VALUE ? objectValue(index) : null;
+		return value instanceof Date ? ((Date) value).toInstant() : null;
+	}
+
+	/**
+	 * @return The value of an entry that is not stored unboxed, decoding (and from then on keeping) a deferred value.
+	 */
+	@Nullable
+	private Object objectValue(final int index) {
+		if (types[index] == DEFERRED_VALUE) {
+			values[index] = ((OutlookMessageProperty) values[index]).getData();
+			types[index] = OBJECT_VALUE;
+		}
+		return values[index];
+	}
+
+	private void put(final int id, @Nullable final Object value, final int type, final long valueBits) {
+		final int index = size == 0 || ids[size - 1] < id ? -(size + 1) : indexOf(id);
+		if (index >= 0) {
+			values[index] = value;
+			types[index] = type;
+			bits[index] = valueBits;
+		} else {
+			insert(-(index + 1), id, value, type, valueBits);
+		}
+	}
+
+	private int indexOf(final int id) {
+		return Arrays.binarySearch(ids, 0, size, id);
+	}
+
+	/**
+	 * @return The stored ids in ascending order.
+	 */
+	@NotNull
+	Set<Integer> ids() {
+		return idSet;
+	}
+
+	private void insert(final int index, final int id, @Nullable final Object value, final int type, final long valueBits) {
+		if (size == ids.length) {
+			ids = Arrays.copyOf(ids, size * 2);
+			values = Arrays.copyOf(values, size * 2);
+			types = Arrays.copyOf(types, size * 2);
+			bits = Arrays.copyOf(bits, size * 2);
+		}
+		System.arraycopy(ids, index, ids, index + 1, size - index);
+		System.arraycopy(values, index, values, index + 1, size - index);
+		System.arraycopy(types, index, types, index + 1, size - index);
+		System.arraycopy(bits, index, bits, index + 1, size - index);
+		ids[index] = id;
+		values[index] = value;
+		types[index] = type;
+		bits[index] = valueBits;
+		size++;
+	}
+
+	private final class IdSet extends AbstractSet<Integer> {
+		@Override
+		public int size() {
+			return size;
+		}
+
+		@Override
+		public boolean contains(final Object o) {
+			return o instanceof Integer && indexOf((Integer) o) >= 0;
+		}
+
+		@NotNull
+		@Override
+		public Iterator<Integer> iterator() {
+			return new Iterator<Integer>() {
+				private int next;
+
+				@Override
+				public boolean hasNext() {
+					return next < size;
+				}
+
+				@Override
+				public Integer next() {
+					if (next >= size) {
+						throw new NoSuchElementException();
+					}
+					return ids[next++];
+				}
+			};
+		}
+	}
+}
@@ -14,6 +14,7 @@ import org.simplejavamail.outlookmessageparser.model.OutlookSmime.OutlookSmimeMu
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.time.Instant;
 import java.util.Collection;
 import java.util.Date;
 import java.util.List;
@@ -1109,8 +1110,10 @@ public class HighoverEmailsTest {
 			throws IOException {
 		OutlookMessage msg = parseMsgFile(msgPath);
 
-		assertThat(msg.getClientSubmitTime()).isEqualTo(new Date(1717507879000L));
+		assertThat(msg.getClientSubmitTime()).isEqualTo(new Date(1717507879728L));
+		assertThat(msg.getClientSubmitTimeInstant()).isEqualTo(Instant.parse("2024-06-04T13:31:19.728241400Z"));
 		assertThat(msg.getPropertyValue(0x0e06)).describedAs("message delivery time").isEqualTo(new Date(1717507860000L));
+		assertThat(msg.getInstantProperty(0x0e06)).describedAs("message delivery time").isEqualTo(Instant.ofEpochMilli(1717507860000L));
 	}
 
 	private void assertAttachmentMetadata(OutlookAttachment attachment, String mimeType, String fileExt, String filename, String fullname) {
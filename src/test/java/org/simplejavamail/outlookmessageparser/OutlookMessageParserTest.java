@@ -3,17 +3,55 @@ package org.simplejavamail.outlookmessageparser;
 import org.apache.poi.poifs.filesystem.DirectoryEntry;
 import org.apache.poi.poifs.filesystem.POIFSFileSystem;
 import org.junit.jupiter.api.Test;
+import org.simplejavamail.outlookmessageparser.ParseOptions.Part;
+import org.simplejavamail.outlookmessageparser.container.MsgContainer;
+import org.simplejavamail.outlookmessageparser.container.MsgDirectory;
+import org.simplejavamail.outlookmessageparser.container.PoiMsgContainer;
+import org.simplejavamail.outlookmessageparser.container.StandardMsgContainerBackend;
+import org.simplejavamail.outlookmessageparser.model.OutlookAttachment;
+import org.simplejavamail.outlookmessageparser.model.OutlookFileAttachment;
 import org.simplejavamail.outlookmessageparser.model.OutlookMessage;
+import org.simplejavamail.outlookmessageparser.model.OutlookMessageEnvelope;
+import org.simplejavamail.outlookmessageparser.model.OutlookMessageProbe;
+import org.simplejavamail.outlookmessageparser.model.OutlookMessageProbe.Verdict;
+import org.simplejavamail.outlookmessageparser.model.OutlookMessageProperty;
 import org.simplejavamail.outlookmessageparser.model.OutlookMsgAttachment;
+import org.simplejavamail.outlookmessageparser.model.OutlookNamedProperty;
 import org.simplejavamail.outlookmessageparser.model.OutlookSmime.OutlookSmimeApplicationOctetStream;
 import org.simplejavamail.outlookmessageparser.model.OutlookSmime.OutlookSmimeApplicationSmime;
 import org.simplejavamail.outlookmessageparser.model.OutlookSmime.OutlookSmimeMultipartSigned;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.UncheckedIOException;
 import java.lang.reflect.Method;
-
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
 import static java.nio.charset.StandardCharsets.UTF_16LE;
+import static java.util.Objects.requireNonNull;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 public class OutlookMessageParserTest {
 
@@ -34,9 +72,12 @@ public class OutlookMessageParserTest {
 			createUnicodeProperty(attachmentDirectory, "370e", "message/rfc822");
 			createUnicodeProperty(attachmentDirectory, "3704", "nested.msg");
 
-			Method parseAttachment = OutlookMessageParser.class.getDeclaredMethod("parseAttachment", DirectoryEntry.class, OutlookMessage.class);
+			// eagerly parsed (no lazy container), as parseMsg does for a message with a codepage
+			Class<?> lazyContainer = Class.forName(OutlookMessageParser.class.getName() + "$LazyContainer");
+			Method parseAttachment = OutlookMessageParser.class.getDeclaredMethod("parseAttachment", MsgDirectory.class, OutlookMessage.class,
+					lazyContainer, Charset.class);
 			parseAttachment.setAccessible(true);
-			parseAttachment.invoke(parser, attachmentDirectory, msg);
+			parseAttachment.invoke(parser, PoiMsgContainer.wrap(attachmentDirectory), msg, null, Charset.forName("windows-1252"));
 		}
 
 		assertThat(msg.getOutlookAttachments()).hasSize(1);
@@ -46,6 +87,413 @@ public class OutlookMessageParserTest {
 		assertThat(nested.getAttachment().getFilename()).isEqualTo("nested.msg");
 	}
 
+	@Test
+	public void parseMsgFromPath()
+			throws Exception {
+		OutlookMessage msg = new OutlookMessageParser().parseMsg(resourcePath("test-messages/simple sent.msg"));
+
+		assertThat(msg.getSubject()).isEqualTo("(outlookEMLandMSGconverter Trial Version Import) BitDaddys Software");
+		assertThat(msg.getFromEmail()).isEqualTo("jdoes@someserver.com");
+		assertThat(msg.getBodyRTF()).isNotEmpty();
+	}
+
+	@Test
+	public void parseMsgFromChannel()
+			throws Exception {
+		OutlookMessage msg = new OutlookMessageParser().parseMsg(FileChannel.open(resourcePath("test-messages/simple sent.msg"), StandardOpenOption.READ));
+
+		assertThat(msg.getSubject()).isEqualTo("(outlookEMLandMSGconverter Trial Version Import) BitDaddys Software");
+		assertThat(msg.getFromEmail()).isEqualTo("jdoes@someserver.com");
+	}
+
+	@Test
+	public void parseMsgSpoolsStreamsAboveTempFileThreshold()
+			throws Exception {
+		for (long tempFileThreshold : new long[] { 0, 1024, Integer.MAX_VALUE }) {
+			OutlookMessageParser parser = new OutlookMessageParser();
+			parser.setTempFileThreshold(tempFileThreshold);
+
+			OutlookMessage msg = parser.parseMsg(Files.newInputStream(resourcePath("test-messages/simple sent.msg")));
+
+			assertThat(msg.getSubject()).isEqualTo("(outlookEMLandMSGconverter Trial Version Import) BitDaddys Software");
+			assertThat(msg.getFromEmail()).isEqualTo("jdoes@someserver.com");
+		}
+	}
+
+	@Test
+	public void parseMsgFromHeapAndDirectBuffers()
+			throws Exception {
+		byte[] msgBytes = Files.readAllBytes(resourcePath("test-messages/simple sent.msg"));
+		ByteBuffer direct = ByteBuffer.allocateDirect(msgBytes.length);
+		direct.put(msgBytes);
+		direct.flip();
+
+		for (ByteBuffer buffer : new ByteBuffer[] { ByteBuffer.wrap(msgBytes), direct }) {
+			OutlookMessage msg = new OutlookMessageParser().parseMsg(buffer);
+
+			assertThat(msg.getSubject()).isEqualTo("(outlookEMLandMSGconverter Trial Version Import) BitDaddys Software");
+			assertThat(buffer.position()).isZero();
+			assertThat(buffer.remaining()).isEqualTo(msgBytes.length);
+		}
+	}
+
+	@Test
+	public void parseMsgWithEachContainerBackend()
+			throws Exception {
+		Path msgFile = resourcePath("test-messages/simple sent.msg");
+		for (StandardMsgContainerBackend backend : StandardMsgContainerBackend.values()) {
+			OutlookMessageParser parser = new OutlookMessageParser();
+			parser.setContainerBackend(backend);
+
+			for (OutlookMessage msg : new OutlookMessage[] {
+					parser.parseMsg(msgFile),
+					parser.parseMsg(FileChannel.open(msgFile, StandardOpenOption.READ)),
+					parser.parseMsg(ByteBuffer.wrap(Files.readAllBytes(msgFile))) }) {
+				assertThat(msg.getSubject()).isEqualTo("(outlookEMLandMSGconverter Trial Version Import) BitDaddys Software");
+				assertThat(msg.getFromEmail()).isEqualTo("jdoes@someserver.com");
+			}
+
+			try (MsgContainer container = backend.open(msgFile)) {
+				assertThat(new OutlookMessageParser().parseMsg(container).getSubject())
+						.isEqualTo("(outlookEMLandMSGconverter Trial Version Import) BitDaddys Software");
+			}
+		}
+	}
+
+	@Test
+	public void parseDirectoryParsesMsgFilesInNameOrder()
+			throws Exception {
+		Path testMessages = resourcePath("test-messages");
+		long msgFileCount;
+		try (Stream<Path> files = Files.list(testMessages)) {
+			msgFileCount = files.filter(file -> file.getFileName().toString().endsWith(".msg")).count();
+		}
+
+		for (int filesAhead : new int[] { 1, 3 }) {
+			try (Stream<OutlookMessage> messages = new OutlookMessageParser().parseDirectory(testMessages, filesAhead)) {
+				List<OutlookMessage> parsedMessages = messages.collect(Collectors.toList());
+
+				assertThat(parsedMessages).hasSize((int) msgFileCount);
+				// "CC duplicate recipients bug.msg" sorts first
+				assertThat(parsedMessages.get(0).getFromEmail()).isEqualTo("atmcquillen@gmail.com");
+			}
+		}
+	}
+
+	@Test
+	public void probeRecognizesMsgFiles()
+			throws Exception {
+		OutlookMessageParser parser = new OutlookMessageParser();
+
+		OutlookMessageProbe msgProbe = parser.probe(resourcePath("test-messages/S_MIME test message signed.msg"));
+		assertThat(msgProbe.getVerdict()).isEqualTo(Verdict.OUTLOOK_MESSAGE);
+		assertThat(msgProbe.getMessageClass()).isEqualTo("IPM.Note.SMIME.MultipartSigned");
+		// ANSI message, which only has a __substg1.0_001A001E message class
+		assertThat(parser.probe(resourcePath("test-messages/simple sent.msg")).getMessageClass()).isEqualTo("IPM.Note");
+
+		assertThat(parser.probe(resourcePath("test-messages/CC duplicate recipients bug.zip")).getVerdict()).isEqualTo(Verdict.NOT_COMPOUND_FILE);
+		assertThat(parser.probe(ByteBuffer.wrap(new byte[] { 1, 2, 3 })).getVerdict()).isEqualTo(Verdict.NOT_COMPOUND_FILE);
+	}
+
+	@Test
+	public void probeReportsTruncatedCompoundFilesAsCorrupt()
+			throws Exception {
+		OutlookMessageParser parser = new OutlookMessageParser();
+		byte[] msgBytes = Files.readAllBytes(resourcePath("test-messages/simple sent.msg"));
+
+		// the signature followed by a header cut short
+		assertThat(parser.probe(ByteBuffer.wrap(Arrays.copyOf(msgBytes, 100))).getVerdict()).isEqualTo(Verdict.CORRUPT);
+
+		Path truncatedFile = Files.createTempFile("outlook-message-parser", ".msg");
+		try {
+			Files.write(truncatedFile, Arrays.copyOf(msgBytes, 100));
+			assertThat(parser.probe(truncatedFile)).isEqualTo(new OutlookMessageProbe(Verdict.CORRUPT, null));
+		} finally {
+			Files.delete(truncatedFile);
+		}
+	}
+
+	@Test
+	public void parseEnvelopeReadsSummaryWithoutAttachmentData()
+			throws Exception {
+		Path msgFile = resourcePath("test-messages/forward with attachments and embedded images.msg");
+		OutlookMessageEnvelope envelope = new OutlookMessageParser().parseEnvelope(msgFile);
+		OutlookMessage msg = new OutlookMessageParser().parseMsg(msgFile);
+
+		assertThat(envelope.getMessageClass()).isEqualTo("IPM.Note");
+		assertThat(envelope.getSubject()).isEqualTo("FW: Delivery delayed:RE: Bosco Fraud Cases [ 2 of 8]");
+		assertThat(envelope.getRecipientCount()).isEqualTo(msg.getRecipients().size());
+		assertThat(envelope.getAttachmentSizes()).containsExactly(401, 243830, 175862, 1677);
+		assertThat(envelope.getDate()).isEqualTo(msg.getCreationDate());
+
+		// Exchange sender, whose SMTP address is only in the SMTP address properties
+		OutlookMessageEnvelope exchangeEnvelope = new OutlookMessageParser().parseEnvelope(resourcePath("test-messages/nested simple mail.msg"));
+		assertThat(exchangeEnvelope.getFromName()).isEqualTo("REISINGER Emanuel");
+		assertThat(exchangeEnvelope.getFromEmail()).isEqualTo("Emanuel.Reisinger@cargonet.software");
+		// the attached .msg file has no data stream of its own
+		assertThat(exchangeEnvelope.getAttachmentSizes()).containsExactly(-1);
+		assertThat(exchangeEnvelope.getDate()).isEqualTo(new OutlookMessageParser().parseMsg(resourcePath("test-messages/nested simple mail.msg")).getClientSubmitTime());
+	}
+
+	@Test
+	public void parseEnvelopeAcceptsLowerCaseStreamNames()
+			throws Exception {
+		OutlookMessageParser parser = new OutlookMessageParser();
+		try (POIFSFileSystem poifs = new POIFSFileSystem()) {
+			createUnicodeProperty(poifs.getRoot(), "001a", "IPM.Note");
+			createUnicodeProperty(poifs.getRoot(), "0c1f", "sender@example.com");
+			poifs.getRoot().createDocument("__substg1.0_0037001f", new ByteArrayInputStream("Lower case subject".getBytes(UTF_16LE)));
+
+			OutlookMessageEnvelope envelope = parser.parseEnvelope(new PoiMsgContainer(poifs));
+
+			assertThat(envelope.getMessageClass()).isEqualTo("IPM.Note");
+			assertThat(envelope.getSubject()).isEqualTo("Lower case subject");
+			assertThat(envelope.getFromEmail()).isEqualTo("sender@example.com");
+			assertThat(envelope.getSubject()).isEqualTo(parseMsg(parser, poifs).getSubject());
+		}
+	}
+
+	@Test
+	public void parseMsgLazilyDecodesPropertiesOnFirstAccess()
+			throws Exception {
+		Path msgFile = resourcePath("test-messages/HTML mail with replyto and attachment and embedded image.msg");
+		OutlookMessageParser parser = new OutlookMessageParser();
+		OutlookMessage eager = parser.parseMsg(msgFile);
+
+		OutlookMessage lazy = parser.parseMsgLazily(msgFile);
+		try {
+			assertThat(lazy.getSubject()).isEqualTo("hey");
+			assertThat(lazy.getBodyText()).isEqualTo("We should meet up!\r\n");
+			assertThat(lazy.getPropertyCodes()).isEqualTo(eager.getPropertyCodes());
+			for (Integer code : eager.getPropertyCodes()) {
+				assertThat(lazy.getPropertyValue(code)).isEqualTo(eager.getPropertyValue(code));
+			}
+		} finally {
+			lazy.close();
+		}
+		// decoded values are kept after closing
+		assertThat(lazy.getBodyText()).isEqualTo("We should meet up!\r\n");
+
+		OutlookMessage closedBeforeAccess = parser.parseMsgLazily(msgFile);
+		closedBeforeAccess.close();
+		assertThat(closedBeforeAccess.getSubject()).isEqualTo("hey");
+		assertThatThrownBy(closedBeforeAccess::getBodyText).isInstanceOf(UncheckedIOException.class);
+	}
+
+	@Test
+	public void parseMsgReadsMultiValuedStrings()
+			throws Exception {
+		OutlookMessage msg = new OutlookMessageParser().parseMsg(resourcePath("test-messages/CC duplicate recipients bug.msg"));
+
+		// named property, stored as a length stream with one __substg1.0_800C101F-0000000N stream per value
+		assertThat((String[]) msg.getPropertyValue(0x800c)).containsExactly("M2HClassifier", "ExtractLanguage", "IRankerScore", "OOFDetection",
+				"M2HClassifier1.0", "ExtractLanguage1.0", "IRankerScore1.0", "OOFDetection2.0");
+	}
+
+	@Test
+	public void parseMsgReadsMultiValuedTimesAsFileTimes()
+			throws Exception {
+		long firstFileTime = 132223104000000000L;
+		long secondFileTime = 132223140000000001L;
+		OutlookMessage msg;
+		try (POIFSFileSystem poifs = new POIFSFileSystem()) {
+			poifs.getRoot().createDocument("__substg1.0_60011040", new ByteArrayInputStream(ByteBuffer.allocate(2 * Long.BYTES)
+					.order(ByteOrder.LITTLE_ENDIAN)
+					.putLong(firstFileTime)
+					.putLong(secondFileTime)
+					.array()));
+			msg = parseMsg(new OutlookMessageParser(), poifs);
+		}
+
+		assertThat((long[]) msg.getPropertyValue(0x6001)).containsExactly(firstFileTime, secondFileTime);
+		assertThat(OutlookMessageProperty.toInstant(firstFileTime)).isEqualTo(Instant.parse("2020-01-01T00:00:00Z"));
+		assertThat(OutlookMessageProperty.toInstant(secondFileTime)).isEqualTo(Instant.parse("2020-01-01T01:00:00.000000100Z"));
+	}
+
+	@Test
+	public void parseMsgDecodesString8PropertiesWithMessageCodepage()
+			throws Exception {
+		OutlookMessage msg;
+		try (POIFSFileSystem poifs = new POIFSFileSystem()) {
+			createPropertiesStream(poifs.getRoot(), 0x3ffd0003, 932); // PR_MESSAGE_CODEPAGE (Shift_JIS)
+			createString8Property(poifs.getRoot(), "0037", "日本語の件名".getBytes(Charset.forName("windows-31j")));
+			msg = parseMsg(new OutlookMessageParser(), poifs);
+		}
+
+		assertThat(msg.getSubject()).isEqualTo("日本語の件名");
+	}
+
+	@Test
+	public void parseMsgDecodesString8PropertiesWithoutCodepageAsIso88591()
+			throws Exception {
+		OutlookMessage msg;
+		try (POIFSFileSystem poifs = new POIFSFileSystem()) {
+			createString8Property(poifs.getRoot(), "0037", "Café crème".getBytes(ISO_8859_1));
+			msg = parseMsg(new OutlookMessageParser(), poifs);
+		}
+
+		assertThat(msg.getSubject()).isEqualTo("Café crème");
+	}
+
+	@Test
+	public void parseMsgReplacesOnlyUnpairedSurrogateInUnicodeProperties()
+			throws Exception {
+		OutlookMessage msg;
+		try (POIFSFileSystem poifs = new POIFSFileSystem()) {
+			// "A", a lone high surrogate and "B", which the JDK decoder would replace together with the surrogate
+			poifs.getRoot().createDocument("__substg1.0_0037001F", new ByteArrayInputStream(new byte[] { 0x41, 0, 0x00, (byte) 0xD8, 0x42, 0 }));
+			msg = parseMsg(new OutlookMessageParser(), poifs);
+		}
+
+		assertThat(msg.getSubject()).isEqualTo("A\uFFFDB");
+	}
+
+	@Test
+	public void parseMsgDecodesPreferredVariantOfStringProperties()
+			throws Exception {
+		try (POIFSFileSystem poifs = new POIFSFileSystem()) {
+			createString8Property(poifs.getRoot(), "0037", "8-bit subject".getBytes(ISO_8859_1));
+			createUnicodeProperty(poifs.getRoot(), "0037", "Unicode subject");
+
+			OutlookMessageParser parser = new OutlookMessageParser();
+			assertThat(parseMsg(parser, poifs).getSubject()).isEqualTo("Unicode subject");
+
+			parser.setPreferUnicodeStrings(false);
+			assertThat(parseMsg(parser, poifs).getSubject()).isEqualTo("8-bit subject");
+		}
+	}
+
+	@Test
+	public void parseMsgOnlyMaterializesPartsOfParseOptions()
+			throws Exception {
+		Path msgFile = resourcePath("test-messages/forward with attachments and embedded images.msg");
+		OutlookMessageParser parser = new OutlookMessageParser();
+		parser.setParseOptions(ParseOptions.only(Part.HEADERS, Part.ATTACHMENT_METADATA));
+		OutlookMessage msg = parser.parseMsg(msgFile);
+
+		assertThat(msg.getSubject()).isEqualTo("FW: Delivery delayed:RE: Bosco Fraud Cases [ 2 of 8]");
+		assertThat(msg.getCreationDate()).isNotNull();
+		assertThat(msg.getBodyText()).isNull();
+		assertThat(msg.getOutlookAttachments()).hasSize(4);
+		for (OutlookAttachment attachment : msg.getOutlookAttachments()) {
+			assertThat(((OutlookFileAttachment) attachment).getData()).isEmpty();
+		}
+		assertThat(msg.getOutlookAttachments()).extracting(attachment -> ((OutlookFileAttachment) attachment).getSize())
+				.containsExactly(401L, 243830L, 175862L, 1677L);
+
+		parser.setParseOptions(ParseOptions.only(Part.BODY_TEXT));
+		OutlookMessage textOnly = parser.parseMsg(msgFile);
+		assertThat(textOnly.getSubject()).isNull();
+		assertThat(textOnly.getBodyText()).isEqualTo(new OutlookMessageParser().parseMsg(msgFile).getBodyText());
+		assertThat(textOnly.getOutlookAttachments()).isEmpty();
+	}
+
+	@Test
+	public void parseMsgKeepsNestedMessagesWithoutIncludedContent()
+			throws Exception {
+		OutlookMessageParser parser = new OutlookMessageParser();
+		parser.setParseOptions(ParseOptions.only(Part.NESTED_MESSAGES));
+		OutlookMessage msg = parser.parseMsg(resourcePath("test-messages/nested simple mail.msg"));
+
+		// none of the parts that tell whether the nested message is empty is included, so it is not purged
+		assertThat(msg.getOutlookAttachments()).hasSize(1);
+		assertThat(msg.getOutlookAttachments().get(0)).isInstanceOf(OutlookMsgAttachment.class);
+		assertThat(((OutlookMsgAttachment) msg.getOutlookAttachments().get(0)).getOutlookMessage().getSubject()).isNull();
+	}
+
+	@Test
+	public void parseMsgResolvesNamedPropertiesPerMessage()
+			throws Exception {
+		OutlookMessageParser parser = new OutlookMessageParser();
+		OutlookMessage signed = parser.parseMsg(resourcePath("test-messages/S_MIME test message signed.msg"));
+		OutlookMessage encrypted = parser.parseMsg(resourcePath("test-messages/S_MIME test message encrypted.msg"));
+
+		// the same named property is mapped to a different property id in each message
+		assertThat(signed.getNamedPropertyId(OutlookNamedProperty.CONTENT_TYPE)).isEqualTo(0x8003);
+		assertThat(encrypted.getNamedPropertyId(OutlookNamedProperty.CONTENT_TYPE)).isEqualTo(0x8004);
+		assertThat((String) signed.getNamedPropertyValue(OutlookNamedProperty.CONTENT_TYPE)).startsWith("multipart/signed;");
+		assertThat((String) encrypted.getNamedPropertyValue(OutlookNamedProperty.CONTENT_TYPE)).startsWith("application/pkcs7-mime;");
+		assertThat(encrypted.getNamedProperties().get(0x8000))
+				.isSameAs(OutlookNamedProperty.ofId(OutlookNamedProperty.PSETID_COMMON, 0x8580))
+				.isSameAs(signed.getNamedProperties().get(0x8000));
+		assertThat(encrypted.getSmime()).isInstanceOf(OutlookSmimeApplicationSmime.class);
+	}
+
+	@Test
+	public void parseZipParsesMsgEntries()
+			throws Exception {
+		try (Stream<OutlookMessage> messages = new OutlookMessageParser().parseZip(resourcePath("test-messages/CC duplicate recipients bug.zip"))) {
+			List<OutlookMessage> parsedMessages = messages.collect(Collectors.toList());
+
+			assertThat(parsedMessages).hasSize(1);
+			assertThat(parsedMessages.get(0).getFromName()).isEqualTo("Andrew McQuillen");
+			assertThat(parsedMessages.get(0).getFromEmail()).isEqualTo("atmcquillen@gmail.com");
+		}
+	}
+
+	@Test
+	public void closingParseZipWaitsForEntriesInFlight()
+			throws Exception {
+		byte[] msgBytes = Files.readAllBytes(resourcePath("test-messages/simple sent.msg"));
+		Path zipFile = Files.createTempFile("outlook-message-parser", ".zip");
+		try {
+			try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(zipFile))) {
+				for (String name : new String[] { "first.msg", "second.msg" }) {
+					zip.putNextEntry(new ZipEntry(name));
+					zip.write(msgBytes);
+					zip.closeEntry();
+				}
+			}
+
+			// parses the first entry right away and holds the second one back until released
+			CountDownLatch release = new CountDownLatch(1);
+			AtomicBoolean secondEntryStarted = new AtomicBoolean();
+			AtomicInteger submittedEntries = new AtomicInteger();
+			Executor executor = task -> {
+				if (submittedEntries.incrementAndGet() == 1) {
+					task.run();
+				} else {
+					new Thread(() -> {
+						try {
+							release.await();
+							// set before running, as closing returns as soon as the task completes the entry
+							secondEntryStarted.set(true);
+							task.run();
+						} catch (InterruptedException e) {
+							Thread.currentThread().interrupt();
+						}
+					}).start();
+				}
+			};
+
+			Stream<OutlookMessage> messages = new OutlookMessageParser().parseZip(zipFile, executor, 2);
+			assertThat(messages.iterator().hasNext()).isTrue();
+
+			Thread closer = new Thread(messages::close);
+			closer.start();
+			closer.join(200);
+			assertThat(closer.isAlive()).isTrue();
+
+			release.countDown();
+			closer.join(10_000);
+			assertThat(closer.isAlive()).isFalse();
+			assertThat(secondEntryStarted).isTrue();
+		} finally {
+			Files.delete(zipFile);
+		}
+	}
+
+	@Test
+	public void parseZipCannotBeIteratedAfterClosing()
+			throws Exception {
+		Stream<OutlookMessage> messages = new OutlookMessageParser().parseZip(resourcePath("test-messages/CC duplicate recipients bug.zip"));
+		Iterator<OutlookMessage> iterator = messages.iterator();
+		messages.close();
+
+		assertThatThrownBy(iterator::hasNext).isInstanceOf(IllegalStateException.class).hasMessageContaining("has already been closed");
+		assertThatThrownBy(iterator::next).isInstanceOf(IllegalStateException.class);
+	}
+
 	@Test
 	public void extractReplyToHeader() {
 		OutlookMessage msg = new OutlookMessage();
@@ -202,8 +650,35 @@ public class OutlookMessageParserTest {
 		assertThat(msg.getSmime()).isNull();
 	}
 
+	private static OutlookMessage parseMsg(OutlookMessageParser parser, POIFSFileSystem poifs)
+			throws Exception {
+		ByteArrayOutputStream msgFile = new ByteArrayOutputStream();
+		poifs.writeFilesystem(msgFile);
+		return parser.parseMsg(new ByteArrayInputStream(msgFile.toByteArray()));
+	}
+
+	private static void createPropertiesStream(DirectoryEntry directory, int propertyTag, long value)
+			throws Exception {
+		// a single fixed-width property after the 32 byte header of the properties stream of a top level message
+		directory.createDocument("__properties_version1.0", new ByteArrayInputStream(ByteBuffer.allocate(48)
+				.order(ByteOrder.LITTLE_ENDIAN)
+				.putInt(32, propertyTag)
+				.putLong(40, value)
+				.array()));
+	}
+
+	private static void createString8Property(DirectoryEntry directory, String property, byte[] value)
+			throws Exception {
+		directory.createDocument("__substg1.0_" + property + "001E", new ByteArrayInputStream(value));
+	}
+
 	private static void createUnicodeProperty(DirectoryEntry directory, String property, String value)
 			throws Exception {
 		directory.createDocument("__substg1.0_" + property + "001F", new ByteArrayInputStream(value.getBytes(UTF_16LE)));
 	}
+
+	private static Path resourcePath(String resource)
+			throws URISyntaxException {
+		return Paths.get(requireNonNull(OutlookMessageParserTest.class.getClassLoader().getResource(resource)).toURI());
+	}
 }
@@ -0,0 +1,137 @@
+package org.simplejavamail.outlookmessageparser.container;
+
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class CompoundFileTest {
+
+	@Test
+	public void readsSameTreeAsPoi()
+			throws Exception {
+		try (DirectoryStream<Path> messages = Files.newDirectoryStream(testMessages(), "*.msg")) {
+			for (Path message : messages) {
+				try (MsgContainer expected = new PoiMsgContainer(new POIFSFileSystem(message.toFile(), true));
+					 MsgContainer actual = CompoundFile.open(message)) {
+					assertSameEntries(expected.getRoot(), actual.getRoot());
+				}
+			}
+		}
+	}
+
+	@Test
+	public void findsEachEntryByName()
+			throws Exception {
+		try (DirectoryStream<Path> messages = Files.newDirectoryStream(testMessages(), "*.msg")) {
+			for (Path message : messages) {
+				try (MsgContainer listed = CompoundFile.open(message);
+					 MsgContainer searched = CompoundFile.open(message)) {
+					for (MsgEntry entry : listed.getRoot().getEntries()) {
+						assertThat(searched.getRoot().getEntry(entry.getName())).extracting(MsgEntry::getName).isEqualTo(entry.getName());
+						assertThat(searched.getRoot().getEntry(entry.getName().toLowerCase())).isNotNull();
+					}
+					assertThat(searched.getRoot().getEntry("__substg1.0_FFFF001F")).isNull();
+				}
+			}
+		}
+	}
+
+	@Test
+	public void findsEntriesInMisorderedSiblingTree()
+			throws Exception {
+		ByteArrayOutputStream compoundFile = new ByteArrayOutputStream();
+		try (POIFSFileSystem poifs = new POIFSFileSystem()) {
+			for (String name : new String[] { "__substg1.0_0037001F", "__substg1.0_0042001F", "__substg1.0_0C1F001F", "__substg1.0_1000001F",
+					"__substg1.0_001A001F" }) {
+				poifs.getRoot().createDocument(name, new ByteArrayInputStream(new byte[] { 1 }));
+			}
+			poifs.writeFilesystem(compoundFile);
+		}
+		// swap the siblings of the top node of the root's tree, so it is no longer ordered by name
+		ByteBuffer bytes = ByteBuffer.wrap(compoundFile.toByteArray()).order(ByteOrder.LITTLE_ENDIAN);
+		int directoryOffset = (bytes.getInt(0x30) + 1) * 512;
+		int topNodeOffset = directoryOffset + bytes.getInt(directoryOffset + 0x4C) * 128;
+		int leftSibling = bytes.getInt(topNodeOffset + 0x44);
+		bytes.putInt(topNodeOffset + 0x44, bytes.getInt(topNodeOffset + 0x48));
+		bytes.putInt(topNodeOffset + 0x48, leftSibling);
+
+		try (MsgContainer listed = CompoundFile.open(bytes);
+			 MsgContainer searched = CompoundFile.open(bytes)) {
+			assertThat(listed.getRoot().getEntries()).hasSize(5);
+			for (MsgEntry entry : listed.getRoot().getEntries()) {
+				assertThat(searched.getRoot().getEntry(entry.getName())).extracting(MsgEntry::getName).isEqualTo(entry.getName());
+			}
+			assertThat(searched.getRoot().getEntry("__substg1.0_FFFF001F")).isNull();
+		}
+	}
+
+	@Test
+	public void releasesMappedFileOnClose()
+			throws Exception {
+		Path copy = Files.createTempFile("outlook-message-parser", ".msg");
+		try {
+			Files.copy(testMessages().resolve("simple sent.msg"), copy, StandardCopyOption.REPLACE_EXISTING);
+			MsgContainer container = CompoundFile.open(copy);
+			MsgDocument document = (MsgDocument) container.getRoot().getEntry("__properties_version1.0");
+			MsgDirectory recipient = (MsgDirectory) container.getRoot().getEntry("__recip_version1.0_#00000000");
+			container.close();
+
+			// entries obtained before closing no longer read from the (unmapped) file
+			assertThatThrownBy(document::read).isInstanceOf(IOException.class).hasMessageContaining("closed");
+			assertThatThrownBy(recipient::getEntries).isInstanceOf(IOException.class).hasMessageContaining("closed");
+		} finally {
+			Files.delete(copy);
+		}
+	}
+
+	@Test
+	public void rejectsNonCompoundFile() {
+		assertThatThrownBy(() -> CompoundFile.open(ByteBuffer.wrap(new byte[512])))
+				.isInstanceOf(IOException.class);
+	}
+
+	private static void assertSameEntries(MsgDirectory expected, MsgDirectory actual)
+			throws IOException {
+		List<MsgEntry> expectedEntries = expected.getEntries();
+		List<MsgEntry> actualEntries = actual.getEntries();
+		assertThat(actualEntries).hasSameSizeAs(expectedEntries);
+		for (int i = 0; i < expectedEntries.size(); i++) {
+			MsgEntry expectedEntry = expectedEntries.get(i);
+			MsgEntry actualEntry = actualEntries.get(i);
+			assertThat(actualEntry.getName()).isEqualTo(expectedEntry.getName());
+			if (expectedEntry instanceof MsgDirectory) {
+				assertThat(actualEntry).isInstanceOf(MsgDirectory.class);
+				assertSameEntries((MsgDirectory) expectedEntry, (MsgDirectory) actualEntry);
+			} else {
+				assertThat(actualEntry).isInstanceOf(MsgDocument.class);
+				assertThat(((MsgDocument) actualEntry).getSize()).isEqualTo(((MsgDocument) expectedEntry).getSize());
+				assertThat(((MsgDocument) actualEntry).read()).isEqualTo(((MsgDocument) expectedEntry).read());
+				final byte[] expectedStart = new byte[Long.BYTES];
+				final byte[] actualStart = new byte[Long.BYTES];
+				assertThat(((MsgDocument) actualEntry).read(actualStart)).isEqualTo(((MsgDocument) expectedEntry).read(expectedStart));
+				assertThat(actualStart).isEqualTo(expectedStart);
+			}
+		}
+	}
+
+	private static Path testMessages()
+			throws URISyntaxException {
+		return Paths.get(requireNonNull(CompoundFileTest.class.getClassLoader().getResource("test-messages")).toURI());
+	}
+}
@@ -0,0 +1,47 @@
+package org.simplejavamail.outlookmessageparser.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OutlookMessagePropertyTest {
+
+	@Test
+	public void splitsTagIntoIdAndType() {
+		OutlookMessageProperty property = new OutlookMessageProperty(0x8005001F, "value", 10);
+
+		assertThat(property.getId()).isEqualTo(0x8005);
+		assertThat(property.getType()).isEqualTo(0x001F);
+		assertThat(property.getClazz()).isEqualTo("8005");
+	}
+
+	@Test
+	public void parsesHexClassOnce() {
+		OutlookMessageProperty property = new OutlookMessageProperty("0c1f", "sender@example.com", 18);
+
+		assertThat(property.getTag()).isEqualTo(0x0C1F0000);
+		assertThat(property.getId()).isEqualTo(0x0C1F);
+		assertThat(property.getClazz()).isEqualTo("0c1f");
+	}
+
+	@Test
+	public void decodesFixedWidthValuesFromTheirLowOrderBytes() {
+		assertThat(OutlookMessageProperty.ofFixedWidth(0x00170002, 0xDEAD_FFFEL).getData()).isEqualTo(-2);
+		assertThat(OutlookMessageProperty.ofFixedWidth(0x0E070003, 0xFFFF_FFFF_0000_0009L).getData()).isEqualTo(9);
+		assertThat(OutlookMessageProperty.ofFixedWidth(0x80000004, Float.floatToIntBits(1.5f)).getData()).isEqualTo(1.5f);
+		assertThat(OutlookMessageProperty.ofFixedWidth(0x80000006, 12_3400L).getData()).isEqualTo(12_3400L);
+		assertThat(OutlookMessageProperty.ofFixedWidth(0x0057000B, 0x0100L).getData()).isEqualTo(true);
+		assertThat(OutlookMessageProperty.ofFixedWidth(0x0057000B, 0L).getData()).isEqualTo(false);
+		assertThat(OutlookMessageProperty.ofFixedWidth(0x0E060040, 0x01DAB67F_2D3C6000L).getSize()).isEqualTo(8);
+		assertThat(OutlookMessageProperty.isFixedWidthType(0x001F)).isFalse();
+	}
+
+	@Test
+	public void convertsFileTimesWithoutLossOfPrecision() {
+		assertThat(OutlookMessageProperty.toInstant(133619814797282414L)).isEqualTo(Instant.parse("2024-06-04T13:31:19.728241400Z"));
+		assertThat(OutlookMessageProperty.toInstant(0L)).isEqualTo(Instant.parse("1601-01-01T00:00:00Z"));
+		assertThat(OutlookMessageProperty.toInstant(-1L)).isEqualTo(Instant.parse("1600-12-31T23:59:59.9999999Z"));
+	}
+}
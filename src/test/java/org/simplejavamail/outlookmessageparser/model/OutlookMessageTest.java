@@ -69,6 +69,28 @@ public class OutlookMessageTest {
 		assertThat(msg.getFromEmail()).isNull();
 	}
 	
+	@Test
+	public void readsFixedWidthPropertiesWithoutBoxing() {
+		OutlookMessage msg = new OutlookMessage();
+
+		msg.setProperty(OutlookMessageProperty.ofFixedWidth(0x0E080003, 0x0001F4A0L), null); // MESSAGE SIZE
+		msg.setProperty(OutlookMessageProperty.ofFixedWidth(0x0E1F000B, 0xFF01L), null); // RTF IN SYNC
+		msg.setProperty(OutlookMessageProperty.ofFixedWidth(0x66A00014, -2L), null);
+		msg.setProperty(OutlookMessageProperty.ofFixedWidth(0x80010005, Double.doubleToLongBits(2.5d)), null);
+
+		assertThat(msg.getIntProperty(0x0e08)).isEqualTo(128160);
+		assertThat(msg.getPropertyValue(0x0e08)).isEqualTo(128160);
+		assertThat(msg.getBooleanProperty(0x0e1f)).isTrue();
+		assertThat(msg.getPropertyValue(0x0e1f)).isEqualTo(true);
+		assertThat(msg.getLongProperty(0x66a0)).isEqualTo(-2L);
+		assertThat(msg.getPropertyValue(0x66a0)).isEqualTo(-2L);
+		assertThat(msg.getDoubleProperty(0x8001)).isEqualTo(2.5d);
+		assertThat(msg.getIntProperty(0x8001)).isEqualTo(2);
+		assertThat(msg.hasProperty(0x0e07)).isFalse();
+		assertThat(msg.getIntProperty(0x0e07)).isZero();
+		assertThat(msg.getPropertyCodes()).containsExactly(0x0e08, 0x0e1f, 0x66a0, 0x8001);
+	}
+
 	private void testSmime(String smimeHeader, String smimeMime, String smimeType, String smimeName) {
 		OutlookMessage msg = new OutlookMessage();
 		msg.setSmimeApplicationSmime(smimeHeader);
@@ -0,0 +1,30 @@
+package org.simplejavamail.outlookmessageparser.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PropertyValuesTest {
+
+	@Test
+	public void keepsIdsSortedAndLastValueWins() {
+		PropertyValues values = new PropertyValues();
+		for (int id = 40; id > 0; id -= 2) {
+			values.put(id, "even" + id);
+		}
+		for (int id = 1; id < 40; id += 2) {
+			values.put(id, "odd" + id);
+		}
+		values.put(0x0e06, "first");
+		values.put(0x0e06, "second");
+
+		assertThat(new ArrayList<>(values.ids())).hasSize(41).isSorted();
+		assertThat(values.ids()).contains(1, 40, 0x0e06).doesNotContain(0, 41);
+		assertThat(values.get(7)).isEqualTo("odd7");
+		assertThat(values.get(8)).isEqualTo("even8");
+		assertThat(values.get(0x0e06)).isEqualTo("second");
+		assertThat(values.get(0x0e07)).isNull();
+	}
+}